@@ -0,0 +1,84 @@
+package me.sunmc.tools.component;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.registry.RegistryFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares component lookups through {@link ComponentManager}, {@link Tools#getComponent(Class)} and {@link ComponentRef}
+ * with the previous lookup, a {@code containsKey} followed by a {@code get} on a {@link HashMap}.
+ * The plugin is mocked, so the {@code JavaPlugin.getPlugin} call the previous static lookup went through is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ComponentLookupBenchmark {
+
+    private static final ComponentRef<GameComponent> GAME_COMPONENT = ComponentRef.of(GameComponent.class);
+
+    private Map<Class<? extends Component>, Component> legacyComponents;
+    private ComponentManager componentManager;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        final Tools plugin = mock(Tools.class);
+        when(plugin.getPluginIdentifier()).thenReturn("benchmark");
+
+        this.componentManager = new ComponentManager(plugin, mock(RegistryFactory.class));
+        this.legacyComponents = new HashMap<>();
+        for (Component component : new Component[]{new GameComponent(), new FillerComponent(), new OtherFillerComponent()}) {
+            this.componentManager.registerComponent(component);
+            this.legacyComponents.put(component.getClass(), component);
+        }
+
+        when(plugin.getComponentManager()).thenReturn(this.componentManager);
+        when(plugin.getRegisteredComponent(any())).thenCallRealMethod();
+
+        final Field instance = Tools.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, plugin);
+    }
+
+    @Benchmark
+    public Component legacyMapLookup() {
+        final Class<GameComponent> componentClass = GameComponent.class;
+        return this.legacyComponents.containsKey(componentClass) ? componentClass.cast(this.legacyComponents.get(componentClass)) : null;
+    }
+
+    @Benchmark
+    public Component managerLookup() {
+        return this.componentManager.getComponent(GameComponent.class);
+    }
+
+    @Benchmark
+    public Component staticLookup() {
+        return Tools.getComponent(GameComponent.class);
+    }
+
+    @Benchmark
+    public Component componentRef() {
+        return GAME_COMPONENT.get();
+    }
+
+    public static class GameComponent implements Component {
+    }
+
+    public static class FillerComponent implements Component {
+    }
+
+    public static class OtherFillerComponent implements Component {
+    }
+}
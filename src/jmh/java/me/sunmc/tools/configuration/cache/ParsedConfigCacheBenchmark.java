@@ -0,0 +1,87 @@
+package me.sunmc.tools.configuration.cache;
+
+import me.sunmc.tools.utils.java.JavaFileUtil;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares loading an item catalog with {@link YamlConfigurationLoader} to reading it from the {@link ParsedConfigCache},
+ * including the content hash the configuration manager computes for every file on load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsedConfigCacheBenchmark {
+
+    private static final String IDENTIFIER = "catalog";
+
+    @Param({"1000", "8000"})
+    private int items;
+
+    private Path directory;
+    private File source;
+    private ParsedConfigCache cache;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("suntools-cache-benchmark");
+        this.source = this.directory.resolve(IDENTIFIER + ".yml").toFile();
+
+        final StringBuilder yaml = new StringBuilder("items:\n");
+        for (int item = 0; item < this.items; item++) {
+            yaml.append("  item-").append(item).append(":\n")
+                    .append("    material: DIAMOND_SWORD\n")
+                    .append("    name: '<gold>Legendary Sword #").append(item).append("'\n")
+                    .append("    amount: ").append(item % 64 + 1).append('\n')
+                    .append("    weight: ").append(item * 0.25).append('\n')
+                    .append("    enchanted: ").append(item % 2 == 0).append('\n')
+                    .append("    lore:\n")
+                    .append("      - '<gray>Forged in the nether'\n")
+                    .append("      - '<gray>Level ").append(item % 100).append("'\n");
+        }
+        Files.writeString(this.source.toPath(), yaml);
+
+        this.cache = new ParsedConfigCache(LoggerFactory.getLogger(ParsedConfigCacheBenchmark.class), this.directory.resolve("cache"));
+        if (!this.cache.write(IDENTIFIER, this.source, JavaFileUtil.hashFile(this.source.toPath()), this.parseYaml())) {
+            throw new IllegalStateException("Could not write parsed cache");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ConfigurationNode parseYaml() throws IOException {
+        return YamlConfigurationLoader.builder().file(this.source).build().load();
+    }
+
+    @Benchmark
+    public ConfigurationNode readCache() throws IOException {
+        final ConfigurationNode node = this.cache.read(IDENTIFIER, this.source, JavaFileUtil.hashFile(this.source.toPath()),
+                ConfigurationOptions.defaults());
+        if (node == null) {
+            throw new IllegalStateException("Parsed cache entry is not valid");
+        }
+        return node;
+    }
+}
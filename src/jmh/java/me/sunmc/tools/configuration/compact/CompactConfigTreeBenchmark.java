@@ -0,0 +1,121 @@
+package me.sunmc.tools.configuration.compact;
+
+import org.openjdk.jmh.annotations.*;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a parsed item catalog held as Configurate nodes to the same catalog flattened into a {@link CompactConfigTree}.
+ * <p>
+ * The read benchmarks measure path lookups of random items. The footprint benchmarks report the heap retained by each
+ * representation as the {@code retainedBytes} counter, measured as the used heap after a full GC with and without the
+ * representation reachable. Run them with a fixed heap, e.g. {@code -jvmArgs "-Xms2g -Xmx2g"}, for stable numbers.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class CompactConfigTreeBenchmark {
+
+    @Param({"5000", "50000"})
+    private int items;
+
+    private ConfigurationNode node;
+    private CompactConfigTree tree;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.node = this.parseCatalog();
+        this.tree = CompactConfigTree.of(this.node);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public long readNode() {
+        final String item = "item-" + ThreadLocalRandom.current().nextInt(this.items);
+        final ConfigurationNode itemNode = this.node.node("items", item);
+        return itemNode.node("name").getString("").length()
+                + itemNode.node("amount").getInt(0)
+                + itemNode.node("lore").childrenList().size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public long readCompact() {
+        final String item = "item-" + ThreadLocalRandom.current().nextInt(this.items);
+        return this.tree.getString("", "items", item, "name").length()
+                + this.tree.getInt(0, "items", item, "amount")
+                + this.tree.getStringList("items", item, "lore").size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public Object footprintNode(Footprint footprint) throws IOException {
+        final long baseline = usedHeap();
+        final ConfigurationNode catalog = this.parseCatalog();
+        footprint.retainedBytes = usedHeap() - baseline;
+        Reference.reachabilityFence(catalog);
+        return catalog;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public Object footprintCompact(Footprint footprint) throws IOException {
+        final long baseline = usedHeap();
+        final CompactConfigTree catalog = CompactConfigTree.of(this.parseCatalog());
+        footprint.retainedBytes = usedHeap() - baseline;
+        footprint.estimatedBytes = catalog.estimateSize();
+        Reference.reachabilityFence(catalog);
+        return catalog;
+    }
+
+    private ConfigurationNode parseCatalog() throws IOException {
+        final StringBuilder yaml = new StringBuilder("items:\n");
+        for (int item = 0; item < this.items; item++) {
+            yaml.append("  item-").append(item).append(":\n")
+                    .append("    material: DIAMOND_SWORD\n")
+                    .append("    name: '<gold>Legendary Sword #").append(item).append("'\n")
+                    .append("    amount: ").append(item % 64 + 1).append('\n')
+                    .append("    weight: ").append(item * 0.25).append('\n')
+                    .append("    enchanted: ").append(item % 2 == 0).append('\n')
+                    .append("    lore:\n")
+                    .append("      - '<gray>Forged in the nether'\n")
+                    .append("      - '<gray>Level ").append(item % 100).append("'\n");
+        }
+        return YamlConfigurationLoader.builder().buildAndLoadString(yaml.toString());
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int run = 0; run < 3; run++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+        public long estimatedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.retainedBytes = 0;
+            this.estimatedBytes = 0;
+        }
+    }
+}
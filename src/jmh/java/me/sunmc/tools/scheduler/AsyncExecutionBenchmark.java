@@ -0,0 +1,140 @@
+package me.sunmc.tools.scheduler;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs 10,000 concurrent blocking tasks on {@link AbstractSchedulerAdapter#async()} and on {@link AbstractSchedulerAdapter#io(String)}
+ * for a single resource limited to {@code ioLimit} concurrent tasks, in both {@link AsyncExecutionMode}s.
+ * The limit only applies in {@link AsyncExecutionMode#VIRTUAL} mode.
+ * <p>
+ * The score is the time until every task finished, so the throughput is the task count divided by it.
+ * The latency counters report how long tasks waited between submission and start, on average and at most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncExecutionBenchmark {
+
+    private static final int TASKS = 10_000;
+
+    @Param({"POOLED", "VIRTUAL"})
+    private AsyncExecutionMode mode;
+
+    @Param({"1", "5"})
+    private long blockMillis;
+
+    @Param({"async", "io"})
+    private String executor;
+
+    @Param({"16", "256"})
+    private int ioLimit;
+
+    private AbstractSchedulerAdapter adapter;
+
+    @Setup
+    public void setUp() {
+        final Tools plugin = mock(Tools.class);
+        when(plugin.getPluginIdentifier()).thenReturn("benchmark");
+        when(plugin.getAsyncExecutionMode()).thenReturn(this.mode);
+        this.adapter = new AsyncOnlySchedulerAdapter(plugin);
+        this.adapter.setResourceLimit("db", this.ioLimit);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.adapter.shutdown();
+    }
+
+    @Benchmark
+    public void blockingTasks(Latency latency) throws InterruptedException {
+        final Executor async = this.executor.equals("io") ? this.adapter.io("db") : this.adapter.async();
+        final CountDownLatch done = new CountDownLatch(TASKS);
+
+        for (int task = 0; task < TASKS; task++) {
+            final long submitted = System.nanoTime();
+            async.execute(() -> {
+                latency.record(System.nanoTime() - submitted);
+                try {
+                    Thread.sleep(this.blockMillis);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        latency.complete();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Latency {
+        public double averageWaitMillis;
+        public double maxWaitMillis;
+
+        private final LongAdder totalWait = new LongAdder();
+        private final LongAdder count = new LongAdder();
+        private volatile long maxWait;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            this.totalWait.reset();
+            this.count.reset();
+            this.maxWait = 0;
+        }
+
+        void record(long waitNanos) {
+            this.totalWait.add(waitNanos);
+            this.count.increment();
+            synchronized (this) {
+                this.maxWait = Math.max(this.maxWait, waitNanos);
+            }
+        }
+
+        void complete() {
+            this.averageWaitMillis = this.totalWait.sum() / (double) Math.max(1, this.count.sum()) / 1_000_000;
+            this.maxWaitMillis = this.maxWait / 1_000_000d;
+        }
+    }
+
+    /**
+     * The benchmark only uses the asynchronous executors, which {@link AbstractSchedulerAdapter} implements on its own.
+     */
+    private static final class AsyncOnlySchedulerAdapter extends AbstractSchedulerAdapter {
+
+        private AsyncOnlySchedulerAdapter(@NonNull Tools plugin) {
+            super(plugin);
+        }
+
+        @Override
+        public @NonNull SchedulerTask syncLater(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NonNull SchedulerTask syncRepeating(@NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NonNull Executor sync() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package me.sunmc.tools.scheduler.wheel;
+
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link HierarchicalTimingWheel} to the {@link ScheduledThreadPoolExecutor} previously used for delayed
+ * tasks, with many short-lived delays such as cooldowns and combat tags that are mostly cancelled before they expire.
+ * <p>
+ * Each invocation schedules a batch of tasks on top of the tasks already pending, and cancels them again. The wheel links
+ * new and cancelled tasks on its next tick, so its benchmarks include that tick. Run with {@code -prof gc} to compare
+ * the allocations per task as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final int BATCH = 1_000;
+    private static final Runnable NO_OP = () -> {
+    };
+
+    @Param({"10000", "200000"})
+    private int pending;
+
+    private HierarchicalTimingWheel wheel;
+    private ScheduledThreadPoolExecutor executor;
+    private long[] delays;
+
+    @Setup
+    public void setUp() {
+        this.wheel = new HierarchicalTimingWheel();
+        this.executor = new ScheduledThreadPoolExecutor(1);
+        this.executor.setRemoveOnCancelPolicy(true);
+
+        // Cooldowns and potion timers between one second and ten minutes, in ticks of 50 milliseconds
+        this.delays = new long[BATCH];
+        for (int index = 0; index < BATCH; index++) {
+            this.delays[index] = ThreadLocalRandom.current().nextLong(20, 12_000);
+        }
+
+        // Repeating, so the wheel keeps them pending while the benchmark advances it
+        for (int task = 0; task < this.pending; task++) {
+            long delay = 12_000 + ThreadLocalRandom.current().nextLong(12_000);
+            this.wheel.schedule(NO_OP, delay, delay);
+            this.executor.scheduleAtFixedRate(NO_OP, delay * 50, delay * 50, TimeUnit.MILLISECONDS);
+        }
+        this.wheel.advance(Runnable::run);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void wheelScheduleAndCancel() {
+        final SchedulerTask[] tasks = new SchedulerTask[BATCH];
+        for (int index = 0; index < BATCH; index++) {
+            tasks[index] = this.wheel.schedule(NO_OP, this.delays[index], 0);
+        }
+        this.wheel.advance(Runnable::run);
+
+        for (SchedulerTask task : tasks) {
+            task.cancel();
+        }
+        this.wheel.advance(Runnable::run);
+    }
+
+    @Benchmark
+    public void executorScheduleAndCancel() {
+        final ScheduledFuture<?>[] tasks = new ScheduledFuture<?>[BATCH];
+        for (int index = 0; index < BATCH; index++) {
+            tasks[index] = this.executor.schedule(NO_OP, this.delays[index] * 50, TimeUnit.MILLISECONDS);
+        }
+
+        for (ScheduledFuture<?> task : tasks) {
+            task.cancel(false);
+        }
+    }
+}
@@ -9,10 +9,14 @@ import me.sunmc.tools.configuration.ConfigIdWrapper;
 import me.sunmc.tools.configuration.ConfigurationManager;
 import me.sunmc.tools.configuration.ConfigurationProvider;
 import me.sunmc.tools.menu.input.InputMenu;
+import me.sunmc.tools.profiler.StartupProfiler;
 import me.sunmc.tools.registry.RegistryFactory;
+import me.sunmc.tools.scheduler.AsyncExecutionMode;
 import me.sunmc.tools.scheduler.BukkitSchedulerAdapter;
 import me.sunmc.tools.scheduler.handler.SchedulerHandlerManager;
 import me.sunmc.tools.scheduler.interfaces.SchedulerAdapter;
+import me.sunmc.tools.scheduler.region.RegionSchedulerAdapter;
+import me.sunmc.tools.scheduler.wheel.TimingWheelSchedulerAdapter;
 import me.sunmc.tools.utils.bukkit.ListenerRegistryFactory;
 import me.sunmc.tools.utils.java.LoggerUtil;
 import org.bukkit.Server;
@@ -20,10 +24,10 @@ import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.reflections.Reflections;
-import org.reflections.util.ConfigurationBuilder;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
 
 /**
@@ -37,7 +41,7 @@ import java.util.Optional;
  * - Menu system integration
  * - Automatic class registration
  * - Lifecycle management
- * - Performance metrics
+ * - Performance metrics and startup profiling
  *
  * <p>Example usage:
  * <pre>{@code
@@ -62,9 +66,11 @@ public abstract class Tools extends JavaPlugin {
 
     public static Logger LOG;
 
+    private static volatile Tools instance;
+
+    private final @NonNull StartupProfiler startupProfiler = new StartupProfiler();
     private final @NonNull Class<? extends Tools> parentPluginClass;
     private final @NonNull String parentPluginIdentifier;
-    private final @NonNull Reflections reflections;
     private final @NonNull RegistryFactory registryFactory;
     private final @NonNull ConfigurationManager configurationManager;
 
@@ -75,6 +81,14 @@ public abstract class Tools extends JavaPlugin {
 
     private boolean shouldLogStartupInformationStart = true;
     private boolean shouldLogStartupInformationDone = true;
+    private boolean shouldLogStartupReport = true;
+    private boolean shouldWriteStartupReport = true;
+    private int startupReportSize = 10;
+    private long configSaveTimeoutMillis = 10_000;
+    private @NonNull AsyncExecutionMode asyncExecutionMode = AsyncExecutionMode.POOLED;
+    private boolean useTimingWheelScheduler = false;
+    private boolean useRegionScheduler = isRegionizedServer();
+    private long syncTickBudgetMillis = 10;
     private boolean debugMode = false;
     private long startupTime = 0;
 
@@ -82,12 +96,9 @@ public abstract class Tools extends JavaPlugin {
         this.parentPluginClass = this.getClass();
         this.parentPluginIdentifier = this.getPluginMeta().getName();
         LOG = LoggerUtil.createLogger(this.parentPluginIdentifier);
+        instance = this;
 
-        this.reflections = new Reflections(ConfigurationBuilder.build().forPackages(
-                "me.sunmc.tools",
-                this.parentPluginClass.getPackageName()
-        ));
-        this.registryFactory = new RegistryFactory(this.reflections, this);
+        this.registryFactory = new RegistryFactory(this);
 
         try {
             this.configurationManager = new ConfigurationManager(this);
@@ -100,11 +111,19 @@ public abstract class Tools extends JavaPlugin {
      * @return Instance of the plugin entry point.
      */
     public static @NonNull Tools getInstance() {
-        return getPlugin(Tools.class);
+        Tools tools = instance;
+        if (tools == null) {
+            tools = getPlugin(Tools.class);
+            instance = tools;
+        }
+        return tools;
     }
 
     /**
      * Static method to get an instance of a registered component.
+     * <p>
+     * A {@link me.sunmc.tools.component.LazyComponent lazy} component is activated by its first lookup.
+     * Use a {@link me.sunmc.tools.component.ComponentRef} to avoid repeated lookups on hot paths.
      *
      * @param componentClass Class of the component.
      * @return Instance of a registered component.
@@ -158,18 +177,32 @@ public abstract class Tools extends JavaPlugin {
         try {
             this.componentManager = new ComponentManager(this, this.registryFactory);
             this.commandManager = new CommandManager(this.registryFactory);
-            this.schedulerAdapter = new BukkitSchedulerAdapter(this);
+            if (this.useRegionScheduler) {
+                this.schedulerAdapter = new RegionSchedulerAdapter(this);
+            } else {
+                this.schedulerAdapter = this.useTimingWheelScheduler
+                        ? new TimingWheelSchedulerAdapter(this)
+                        : new BukkitSchedulerAdapter(this);
+            }
             this.schedulerHandlerManager = new SchedulerHandlerManager(this.registryFactory);
             this.registryFactory.executeAllAutoRegistering();
+            this.startupProfiler.timeWallClock(StartupProfiler.CONFIG_LOAD, "await", this.configurationManager::awaitLoaded);
+            this.configurationManager.getWriteBehind().start();
             this.componentManager.enableAllComponents();
+            this.componentManager.getEnableTimes().forEach((componentClass, nanos) ->
+                    this.startupProfiler.record(StartupProfiler.COMPONENT_ENABLE, componentClass.getName(), nanos));
+            this.componentManager.scheduleDeferredComponents();
 
-            CommandAPI.onEnable();
-            new ListenerRegistryFactory(this).registerAllListeners();
+            this.startupProfiler.time(StartupProfiler.COMMAND_REGISTRATION, "CommandAPI", CommandAPI::onEnable);
+            this.startupProfiler.time(StartupProfiler.LISTENER_REGISTRATION, "listeners",
+                    () -> new ListenerRegistryFactory(this).registerAllListeners());
 
-            this.onStartup();
-            this.schedulerHandlerManager.startAllAutoSchedulers();
+            this.startupProfiler.time(StartupProfiler.STARTUP, "onStartup", this::onStartup);
+            this.startupProfiler.time(StartupProfiler.SCHEDULER_HANDLER_START, "handlers",
+                    this.schedulerHandlerManager::startAllAutoSchedulers);
 
             long finishedTime = System.currentTimeMillis() - this.startupTime;
+            this.finishStartupProfiling(finishedTime);
 
             if (this.shouldLogStartupInformationDone) {
                 this.logStartupInformationDone(finishedTime);
@@ -197,6 +230,8 @@ public abstract class Tools extends JavaPlugin {
                 this.componentManager.disableAllComponents();
             }
 
+            this.configurationManager.shutdown(this.configSaveTimeoutMillis);
+
             if (this.schedulerAdapter != null) {
                 this.schedulerAdapter.shutdown();
             }
@@ -209,6 +244,31 @@ public abstract class Tools extends JavaPlugin {
         }
     }
 
+    /**
+     * Finishes the startup profiler, logs its report and writes it to {@code startup-report.json} in the data folder.
+     */
+    private void finishStartupProfiling(long finishedMilliseconds) {
+        this.startupProfiler.recordWallClock(StartupProfiler.STARTUP, "total", finishedMilliseconds * 1_000_000L);
+        this.startupProfiler.finish();
+
+        if (this.shouldLogStartupReport) {
+            this.startupProfiler.logReport(LOG, this.startupReportSize);
+        }
+
+        if (this.shouldWriteStartupReport) {
+            final Path file = this.getDataFolder().toPath().resolve("startup-report.json");
+            final String version = this.getPluginMeta().getVersion();
+
+            this.schedulerAdapter.executeAsync(() -> {
+                try {
+                    this.startupProfiler.writeJson(file, this.parentPluginIdentifier, version);
+                } catch (IOException exception) {
+                    LOG.warn("Could not write startup report to {}", file, exception);
+                }
+            });
+        }
+    }
+
     /**
      * Logs startup information.
      */
@@ -265,6 +325,107 @@ public abstract class Tools extends JavaPlugin {
         this.shouldLogStartupInformationDone = value;
     }
 
+    /**
+     * If the plugin should log the startup profiler report once the plugin startup is finished.
+     *
+     * @param value {@code true} if the report should be logged, {@code false} otherwise.
+     */
+    public void shouldLogStartupReport(boolean value) {
+        this.shouldLogStartupReport = value;
+    }
+
+    /**
+     * If the plugin should write the startup profiler report to {@code startup-report.json} in the data folder.
+     *
+     * @param value {@code true} if the report should be written, {@code false} otherwise.
+     */
+    public void shouldWriteStartupReport(boolean value) {
+        this.shouldWriteStartupReport = value;
+    }
+
+    /**
+     * Sets how many of the slowest startup entries the logged report contains.
+     *
+     * @param size The number of entries. By default, this is {@code 10}.
+     */
+    public void setStartupReportSize(int size) {
+        this.startupReportSize = Math.max(0, size);
+    }
+
+    /**
+     * Sets how the async executor of the {@link SchedulerAdapter} runs its tasks. Must be called before the plugin is enabled.
+     *
+     * @param mode The execution mode. By default, this is {@link AsyncExecutionMode#POOLED}.
+     */
+    public void setAsyncExecutionMode(@NonNull AsyncExecutionMode mode) {
+        this.asyncExecutionMode = mode;
+    }
+
+    /**
+     * Sets whether delayed and repeating tasks are kept in timing wheels, see {@link TimingWheelSchedulerAdapter}.
+     * Recommended for plugins scheduling very large numbers of short delays. Must be called before the plugin is enabled.
+     *
+     * @param value True to use timing wheels. By default, this is {@code false}.
+     */
+    public void setTimingWheelScheduler(boolean value) {
+        this.useTimingWheelScheduler = value;
+    }
+
+    /**
+     * Sets whether tasks are scheduled through Paper's regionized schedulers, see {@link RegionSchedulerAdapter}.
+     * Takes precedence over {@link #setTimingWheelScheduler(boolean)}. Must be called before the plugin is enabled.
+     *
+     * @param value True to use the regionized schedulers. By default, this is {@code true} on servers ticking regions on multiple threads.
+     */
+    public void setRegionScheduler(boolean value) {
+        this.useRegionScheduler = value;
+    }
+
+    /**
+     * @return If the server ticks regions of its worlds on multiple threads, in which case the {@link org.bukkit.scheduler.BukkitScheduler} is unavailable.
+     */
+    private static boolean isRegionizedServer() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Sets how much main thread time tasks queued through {@link SchedulerAdapter#sync()} may take per tick.
+     * Tasks that do not fit are carried over to the next tick. Must be called before the plugin is enabled.
+     *
+     * @param budgetMillis The budget in milliseconds. By default, this is {@code 10}.
+     */
+    public void setSyncTickBudget(long budgetMillis) {
+        this.syncTickBudgetMillis = Math.max(1, budgetMillis);
+    }
+
+    /**
+     * @return How much main thread time tasks queued through {@link SchedulerAdapter#sync()} may take per tick, in milliseconds.
+     */
+    public long getSyncTickBudget() {
+        return this.syncTickBudgetMillis;
+    }
+
+    /**
+     * @return How the async executor of the {@link SchedulerAdapter} runs its tasks.
+     */
+    public @NonNull AsyncExecutionMode getAsyncExecutionMode() {
+        return this.asyncExecutionMode;
+    }
+
+    /**
+     * Sets how long the shutdown waits for modified configurations and pending backups to be written to disk.
+     *
+     * @param timeoutMillis The deadline in milliseconds. By default, this is {@code 10000}.
+     */
+    public void setConfigSaveTimeout(long timeoutMillis) {
+        this.configSaveTimeoutMillis = Math.max(0, timeoutMillis);
+    }
+
     /**
      * Enables or disables debug mode.
      *
@@ -314,10 +475,20 @@ public abstract class Tools extends JavaPlugin {
     }
 
     /**
+     * Gets the reflections instance for this plugin. The classpath is scanned on first access.
+     *
      * @return Reflections instance for this plugin.
+     * @see RegistryFactory#getReflections()
      */
     public @NonNull Reflections getReflections() {
-        return this.reflections;
+        return this.registryFactory.getReflections();
+    }
+
+    /**
+     * @return Profiler recording the duration of each startup phase.
+     */
+    public @NonNull StartupProfiler getStartupProfiler() {
+        return this.startupProfiler;
     }
 
     /**
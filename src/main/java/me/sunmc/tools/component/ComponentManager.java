@@ -3,28 +3,59 @@ package me.sunmc.tools.component;
 import me.sunmc.tools.Tools;
 import me.sunmc.tools.registry.RegistryFactory;
 import me.sunmc.tools.registry.component.AutoRegisteringFeature;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import me.sunmc.tools.utils.bukkit.TickUtil;
 import me.sunmc.tools.utils.java.LoggerUtil;
 import me.sunmc.tools.utils.java.SinglePointInitiator;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 
+import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Manages and stores all components within the target application.
+ * <p>
+ * Components are enabled in layers computed from {@link DependencyComponent}, and disabled in reverse layer order.
+ * Components annotated with {@link ConcurrentLifecycle} run concurrently within their layer on the asynchronous executor.
+ * Components annotated with {@link LazyComponent} or {@link DeferredComponent} are activated after startup.
  */
 public class ComponentManager extends SinglePointInitiator implements AutoRegisteringFeature {
 
     private final @NonNull Logger logger;
     private final @NonNull Map<Class<? extends Component>, Component> components;
+    private final @NonNull ClassValue<ComponentSlot> slots;
     private final @NonNull RegistryFactory registryFactory;
+    private final @NonNull Tools entryPoint;
+    private final @NonNull Map<Class<? extends Component>, Long> enableTimes;
+    private final @NonNull Map<Class<? extends Component>, Long> disableTimes;
+    private final @NonNull Set<Class<? extends Component>> pendingComponents;
+
+    private long lifecycleTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+    private long deferredBudgetNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private @Nullable SchedulerTask deferredTask;
 
     public ComponentManager(@NonNull Tools entryPoint, @NonNull RegistryFactory registryFactory) {
-        this.components = new HashMap<>();
+        this.components = new LinkedHashMap<>();
+        this.slots = new ClassValue<>() {
+            @Override
+            protected ComponentSlot computeValue(@NonNull Class<?> type) {
+                return new ComponentSlot();
+            }
+        };
+        this.entryPoint = entryPoint;
+        this.enableTimes = new ConcurrentHashMap<>();
+        this.disableTimes = new ConcurrentHashMap<>();
+        this.pendingComponents = new LinkedHashSet<>();
         this.logger = LoggerUtil.createLoggerWithIdentifier(entryPoint, this);
         this.registryFactory = registryFactory;
         this.registryFactory.registerAutoRegisteringComponent(this);
+        this.registryFactory.addInstantiationExclusion(ComponentManager::isActivatedLater);
     }
 
     /**
@@ -67,8 +98,11 @@ public class ComponentManager extends SinglePointInitiator implements AutoRegist
             }
         }
 
-        if (this.components.putIfAbsent(componentClass, componentInstance) != null) {
-            throw new UnsupportedOperationException("Duplicate component registration of class " + name);
+        synchronized (this) {
+            if (this.components.putIfAbsent(componentClass, componentInstance) != null) {
+                throw new UnsupportedOperationException("Duplicate component registration of class " + name);
+            }
+            this.slots.get(componentClass).instance = componentInstance;
         }
 
         if (this.registryFactory.isLoggingEnabled(componentClass)) {
@@ -78,28 +112,173 @@ public class ComponentManager extends SinglePointInitiator implements AutoRegist
 
     /**
      * Gets an instance of a component by providing its class.
+     * <p>
+     * Lookups are thread-safe and served from a {@link ClassValue} slot, so they cost about as much as a field read,
+     * also for components that are not registered. For repeated lookups of the same component, prefer a {@link ComponentRef}.
+     * <p>
+     * A pending {@link LazyComponent lazy} component is activated by its first lookup, which must happen on the main thread,
+     * since enabling it may use the Bukkit API.
      *
      * @param componentClass The class of the component to get.
      * @return Instance of the target {@link Component}.
+     * @throws IllegalStateException If the component is pending and is looked up off the main thread.
      */
     public <T extends Component> @Nullable T getComponent(@NonNull Class<T> componentClass) {
-        if (!this.components.containsKey(componentClass)) {
-            return null;
+        final ComponentSlot slot = this.slots.get(componentClass);
+        Component component = slot.instance;
+        if (component == null && slot.pending) {
+            if (!this.entryPoint.getServer().isPrimaryThread()) {
+                throw new IllegalStateException("Component " + componentClass.getSimpleName()
+                        + " has not been activated yet and can only be activated on the main thread, not on "
+                        + Thread.currentThread().getName());
+            }
+            component = this.activate(componentClass);
+        }
+        return component == null ? null : componentClass.cast(component);
+    }
+
+    /**
+     * Instantiates and enables a pending {@link LazyComponent lazy} or {@link DeferredComponent deferred} component,
+     * activating its pending dependencies first.
+     *
+     * @param componentClass The class of the component to activate.
+     * @return The activated component, or {@code null} if the component is not pending or could not be created.
+     */
+    private synchronized @Nullable Component activate(@NonNull Class<? extends Component> componentClass) {
+        Component existing = this.components.get(componentClass);
+        if (existing != null || !this.pendingComponents.remove(componentClass)) {
+            return existing;
+        }
+
+        for (Class<? extends Component> dependency : this.getPendingDependencies(componentClass)) {
+            this.activate(dependency);
+        }
+
+        final long start = System.nanoTime();
+        this.registerComponent(componentClass);
+        // Cleared after the instance was published, so concurrent lookups never mistake the component for a missing one
+        this.slots.get(componentClass).pending = false;
+
+        Component component = this.components.get(componentClass);
+        if (component != null && component.canAutoEnable()) {
+            this.runTimed(component, Component::onEnable, this.enableTimes);
+        }
+
+        this.logger.debug("Activated {} component {} in {}ms.",
+                componentClass.isAnnotationPresent(LazyComponent.class) ? "lazy" : "deferred",
+                componentClass.getSimpleName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return component;
+    }
+
+    /**
+     * @return Pending components the provided component depends on, through {@link DependencyComponent} or its constructors.
+     */
+    private @NonNull List<Class<? extends Component>> getPendingDependencies(@NonNull Class<? extends Component> componentClass) {
+        final Set<Class<?>> referenced = new HashSet<>();
+        if (componentClass.isAnnotationPresent(DependencyComponent.class)) {
+            referenced.addAll(Arrays.asList(componentClass.getAnnotation(DependencyComponent.class).value()));
+        }
+        for (Constructor<?> constructor : componentClass.getConstructors()) {
+            referenced.addAll(Arrays.asList(constructor.getParameterTypes()));
+        }
+
+        return this.pendingComponents.stream()
+                .filter(referenced::contains)
+                .toList();
+    }
+
+    /**
+     * Schedules the activation of all pending {@link DeferredComponent deferred} components.
+     * <p>
+     * They are activated on the main thread, starting with the first tick after the server has started, and spending
+     * at most the {@link #setDeferredActivationBudget(long, TimeUnit) activation budget} per tick.
+     */
+    public synchronized void scheduleDeferredComponents() {
+        if (this.deferredTask != null || this.nextDeferredComponent() == null) {
+            return;
+        }
+
+        this.deferredTask = this.entryPoint.getSchedulerAdapter().syncRepeating(
+                this::activateDeferredComponents,
+                TickUtil.TICK_IN_MILLIS,
+                TickUtil.TICK_IN_MILLIS,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Activates deferred components until the per-tick budget is spent. At least one component is activated per tick.
+     */
+    private synchronized void activateDeferredComponents() {
+        final long deadline = System.nanoTime() + this.deferredBudgetNanos;
+
+        do {
+            Class<? extends Component> next = this.nextDeferredComponent();
+            if (next == null) {
+                this.cancelDeferredActivation();
+                this.logger.info("All deferred components have been activated.");
+                return;
+            }
+            this.activate(next);
+        } while (System.nanoTime() < deadline);
+    }
+
+    private @Nullable Class<? extends Component> nextDeferredComponent() {
+        for (Class<? extends Component> pending : this.pendingComponents) {
+            if (pending.isAnnotationPresent(DeferredComponent.class)) {
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void cancelDeferredActivation() {
+        if (this.deferredTask != null) {
+            this.deferredTask.cancel();
+            this.deferredTask = null;
         }
-        return componentClass.cast(this.components.get(componentClass));
     }
 
     /**
-     * @return All registered components.
+     * Sets the time that may be spent activating {@link DeferredComponent deferred} components per tick.
+     *
+     * @param budget The budget per tick.
+     * @param unit   The {@link TimeUnit} of the {@param budget}.
+     */
+    public void setDeferredActivationBudget(long budget, @NonNull TimeUnit unit) {
+        this.deferredBudgetNanos = Math.max(0, unit.toNanos(budget));
+    }
+
+    /**
+     * @return Classes of the {@link LazyComponent lazy} and {@link DeferredComponent deferred} components not activated yet.
+     */
+    public synchronized @NonNull Set<Class<? extends Component>> getPendingComponents() {
+        return Set.copyOf(this.pendingComponents);
+    }
+
+    private static boolean isActivatedLater(@NonNull Class<?> clazz) {
+        return clazz.isAnnotationPresent(LazyComponent.class) || clazz.isAnnotationPresent(DeferredComponent.class);
+    }
+
+    /**
+     * @return Unmodifiable view of all registered components, in registration order.
      */
     public @NonNull Map<Class<? extends Component>, Component> getComponents() {
-        return this.components;
+        return Collections.unmodifiableMap(this.components);
     }
 
     @Override
     public void executeAutoRegistering(@NonNull RegistryFactory registryFactory) {
         ComponentSorter componentSorter = new ComponentSorter(registryFactory.getClassesWithRegistryType(Component.class, Component.class));
         for (Class<? extends Component> component : componentSorter.sort()) {
+            // Lazy and deferred components are only activated now when another component depends on them
+            if (isActivatedLater(component) && !registryFactory.isInstantiated(component)) {
+                synchronized (this) {
+                    this.pendingComponents.add(component);
+                    this.slots.get(component).pending = true;
+                }
+                continue;
+            }
             this.registerComponent(component);
         }
     }
@@ -107,25 +286,267 @@ public class ComponentManager extends SinglePointInitiator implements AutoRegist
     /**
      * Enables all registered and instantiated {@link Component components} that
      * are marked to be automatically enabled with {@link Component#canAutoEnable()}.
+     * <p>
+     * Components are enabled layer by layer, so every component is enabled after its {@link DependencyComponent dependencies}.
+     *
+     * @throws IllegalStateException If a component failed to enable.
      */
     public void enableAllComponents() {
-        for (Component component : this.components.values()) {
-            if (component.canAutoEnable()) {
-                component.onEnable();
-            }
-        }
+        this.runLifecycle("enable", this.getLayers(), this.getDependencies(false),
+                Component::canAutoEnable, Component::onEnable, this.enableTimes, true);
     }
 
     /**
      * Disables all registered and instantiated {@link Component components} that
      * are marked to be automatically disabled with {@link Component#canAutoDisable()}.
+     * <p>
+     * Components are disabled in reverse layer order, so every component is disabled before its dependencies.
+     * A component failing to disable does not prevent the others from being disabled.
      */
     public void disableAllComponents() {
-        for (Component component : this.components.values()) {
-            if (component.canAutoDisable()) {
-                component.onDisable();
+        this.cancelDeferredActivation();
+
+        final List<List<Component>> layers = this.getLayers();
+        Collections.reverse(layers);
+        layers.forEach(Collections::reverse);
+        this.runLifecycle("disable", layers, this.getDependencies(true),
+                Component::canAutoDisable, Component::onDisable, this.disableTimes, false);
+    }
+
+    /**
+     * Groups the registered components into layers, where every component is in a later layer than its dependencies.
+     *
+     * @return Mutable list of layers, each in registration order.
+     */
+    private synchronized @NonNull List<List<Component>> getLayers() {
+        final List<List<Component>> layers = new ArrayList<>();
+        for (List<Class<? extends Component>> layer : new ComponentSorter(this.components.keySet()).layers()) {
+            layers.add(new ArrayList<>(layer.stream().map(this.components::get).toList()));
+        }
+        return layers;
+    }
+
+    /**
+     * Maps every registered component to the components that must finish their lifecycle action before it.
+     *
+     * @param reverse False to map components to their {@link DependencyComponent dependencies}, true to map them to their dependents.
+     * @return The components each component waits for.
+     */
+    private synchronized @NonNull Map<Class<? extends Component>, Set<Class<? extends Component>>> getDependencies(boolean reverse) {
+        final Map<Class<? extends Component>, Set<Class<? extends Component>>> dependencies = new HashMap<>();
+        for (Class<? extends Component> componentClass : this.components.keySet()) {
+            if (!componentClass.isAnnotationPresent(DependencyComponent.class)) {
+                continue;
+            }
+
+            for (Class<? extends Component> dependency : componentClass.getAnnotation(DependencyComponent.class).value()) {
+                if (reverse) {
+                    dependencies.computeIfAbsent(dependency, key -> new HashSet<>()).add(componentClass);
+                } else {
+                    dependencies.computeIfAbsent(componentClass, key -> new HashSet<>()).add(dependency);
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Runs a lifecycle action on every layer, waiting for all components of a layer before starting the next one.
+     * <p>
+     * A component is skipped if a component it waits for timed out or was skipped itself, since it may still be running.
+     *
+     * @param phase       Name of the phase, used for logging.
+     * @param layers      The component layers in the order to run them.
+     * @param waitsFor    The components each component waits for.
+     * @param filter      Tests if the action should run for a component.
+     * @param action      The lifecycle action to run.
+     * @param times       Map to record the time each component took in nanoseconds.
+     * @param failOnError If a failing component should abort the lifecycle after its layer finished.
+     */
+    private void runLifecycle(@NonNull String phase, @NonNull List<List<Component>> layers,
+                              @NonNull Map<Class<? extends Component>, Set<Class<? extends Component>>> waitsFor,
+                              @NonNull Predicate<Component> filter, @NonNull Consumer<Component> action,
+                              @NonNull Map<Class<? extends Component>, Long> times, boolean failOnError) {
+        final long startTime = System.nanoTime();
+        final Executor executor = this.entryPoint.getSchedulerAdapter().async();
+        final Set<Class<? extends Component>> unfinished = new HashSet<>();
+        int count = 0;
+
+        for (List<Component> layer : layers) {
+            final Map<Component, CompletableFuture<Void>> concurrent = new LinkedHashMap<>();
+            final Map<Component, AtomicLong> concurrentStarts = new HashMap<>();
+            final List<Component> sequential = new ArrayList<>();
+
+            for (Component component : layer) {
+                if (!filter.test(component)) {
+                    continue;
+                }
+
+                final Class<? extends Component> componentClass = component.getClass();
+                final Optional<Class<? extends Component>> blocker = waitsFor.getOrDefault(componentClass, Set.of()).stream()
+                        .filter(unfinished::contains)
+                        .findFirst();
+                if (blocker.isPresent()) {
+                    this.logger.warn("Skipping {} of component {}, since {} did not finish its {}.",
+                            phase, componentClass.getSimpleName(), blocker.get().getSimpleName(), phase);
+                    unfinished.add(componentClass);
+                    continue;
+                }
+
+                count++;
+                if (componentClass.isAnnotationPresent(ConcurrentLifecycle.class)) {
+                    // The timeout of a component starts when it starts running, not when it is queued
+                    final AtomicLong started = new AtomicLong(Long.MIN_VALUE);
+                    concurrentStarts.put(component, started);
+                    concurrent.put(component, CompletableFuture.runAsync(() -> {
+                        started.set(System.nanoTime());
+                        this.runTimed(component, action, times);
+                    }, executor));
+                } else {
+                    sequential.add(component);
+                }
+            }
+
+            RuntimeException failure = null;
+
+            for (Component component : sequential) {
+                try {
+                    this.runTimed(component, action, times);
+                } catch (RuntimeException exception) {
+                    failure = this.handleLifecycleFailure(phase, component, exception, failure);
+                }
+
+                long took = TimeUnit.NANOSECONDS.toMillis(times.getOrDefault(component.getClass(), 0L));
+                if (took > this.lifecycleTimeoutMillis) {
+                    this.logger.warn("Component {} took {}ms to {}, exceeding the timeout of {}ms.",
+                            component.getClass().getSimpleName(), took, phase, this.lifecycleTimeoutMillis);
+                }
+            }
+
+            // Barrier, the next layer may depend on every component of this layer
+            final long waitStart = System.nanoTime();
+            for (Map.Entry<Component, CompletableFuture<Void>> entry : concurrent.entrySet()) {
+                final String name = entry.getKey().getClass().getSimpleName();
+
+                try {
+                    if (!this.awaitLifecycle(entry.getValue(), concurrentStarts.get(entry.getKey()), waitStart)) {
+                        this.logger.warn("Component {} did not {} within {}ms, continuing without waiting for it.",
+                                name, phase, this.lifecycleTimeoutMillis);
+                        unfinished.add(entry.getKey().getClass());
+                    }
+                } catch (ExecutionException exception) {
+                    RuntimeException cause = exception.getCause() instanceof RuntimeException runtime
+                            ? runtime
+                            : new CompletionException(exception.getCause());
+                    failure = this.handleLifecycleFailure(phase, entry.getKey(), cause, failure);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    this.logger.warn("Interrupted while waiting for component {} to {}.", name, phase);
+                }
+            }
+
+            if (failOnError && failure != null) {
+                throw failure;
             }
         }
+
+        this.logLifecycleReport(phase, count, times, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Waits for a concurrent lifecycle action until the timeout has passed since it started running,
+     * but never less than the timeout after the main thread started waiting.
+     *
+     * @param future    The running lifecycle action.
+     * @param started   The {@link System#nanoTime()} the action started running at, {@link Long#MIN_VALUE} while queued.
+     * @param waitStart The {@link System#nanoTime()} the main thread started waiting at.
+     * @return True if the action finished, false if it timed out.
+     */
+    private boolean awaitLifecycle(@NonNull CompletableFuture<Void> future, @NonNull AtomicLong started, long waitStart)
+            throws ExecutionException, InterruptedException {
+        final long timeout = TimeUnit.MILLISECONDS.toNanos(this.lifecycleTimeoutMillis);
+
+        while (true) {
+            final long start = Math.max(waitStart, started.get());
+            try {
+                future.get(Math.max(0, start + timeout - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException exception) {
+                // Retry if the action only started running while waiting, restarting its timeout
+                if (Math.max(waitStart, started.get()) == start) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void runTimed(@NonNull Component component, @NonNull Consumer<Component> action,
+                          @NonNull Map<Class<? extends Component>, Long> times) {
+        final long start = System.nanoTime();
+        try {
+            action.accept(component);
+        } finally {
+            times.put(component.getClass(), System.nanoTime() - start);
+        }
+    }
+
+    private @NonNull RuntimeException handleLifecycleFailure(@NonNull String phase, @NonNull Component component,
+                                                             @NonNull RuntimeException exception, @Nullable RuntimeException previous) {
+        final String name = component.getClass().getSimpleName();
+        this.logger.error("Component {} failed to {}.", name, phase, exception);
+
+        if (previous != null) {
+            previous.addSuppressed(exception);
+            return previous;
+        }
+        return new IllegalStateException("Component " + name + " failed to " + phase, exception);
+    }
+
+    private void logLifecycleReport(@NonNull String phase, int count, @NonNull Map<Class<? extends Component>, Long> times, long totalNanos) {
+        this.logger.info("Finished {} of {} components in {}ms.", phase, count, TimeUnit.NANOSECONDS.toMillis(totalNanos));
+
+        times.entrySet().stream()
+                .sorted(Map.Entry.<Class<? extends Component>, Long>comparingByValue().reversed())
+                .forEach(entry -> this.logger.debug("  {}: {}ms", entry.getKey().getSimpleName(),
+                        TimeUnit.NANOSECONDS.toMillis(entry.getValue())));
+    }
+
+    /**
+     * Sets the time a single component may take to enable or disable before the manager stops waiting for it.
+     * <p>
+     * Only components annotated with {@link ConcurrentLifecycle} can be left behind, for components running on the
+     * main thread a warning is logged instead. The timeout of a concurrent component starts when it starts running.
+     * Components waiting for a component that was left behind, its dependents when enabling and its dependencies
+     * when disabling, are skipped.
+     *
+     * @param timeout The timeout.
+     * @param unit    The {@link TimeUnit} of the {@param timeout}.
+     */
+    public void setLifecycleTimeout(long timeout, @NonNull TimeUnit unit) {
+        this.lifecycleTimeoutMillis = Math.max(1, unit.toMillis(timeout));
+    }
+
+    /**
+     * @return Time each component took to enable in nanoseconds, from the last {@link #enableAllComponents()}.
+     */
+    public @NonNull Map<Class<? extends Component>, Long> getEnableTimes() {
+        return Collections.unmodifiableMap(this.enableTimes);
+    }
+
+    /**
+     * @return Time each component took to disable in nanoseconds, from the last {@link #disableAllComponents()}.
+     */
+    public @NonNull Map<Class<? extends Component>, Long> getDisableTimes() {
+        return Collections.unmodifiableMap(this.disableTimes);
+    }
+
+    /**
+     * Holds the registered instance of a component class for {@link #getComponent(Class)}, and whether it is still
+     * pending activation, so lookups of other missing components never take the lock of the manager.
+     */
+    private static final class ComponentSlot {
+        private volatile @Nullable Component instance;
+        private volatile boolean pending;
     }
 
     /**
@@ -143,7 +564,7 @@ public class ComponentManager extends SinglePointInitiator implements AutoRegist
          * @param components A set of classes representing components.
          */
         public ComponentSorter(@NonNull Set<Class<? extends Component>> components) {
-            final Map<Class<? extends Component>, List<Class<? extends Component>>> componentDependencies = new HashMap<>();
+            final Map<Class<? extends Component>, List<Class<? extends Component>>> componentDependencies = new LinkedHashMap<>();
 
             for (Class<? extends Component> component : components) {
                 List<Class<? extends Component>> dependencies;
@@ -188,6 +609,56 @@ public class ComponentManager extends SinglePointInitiator implements AutoRegist
             return list;
         }
 
+        /**
+         * Groups the components into layers based on their dependencies.
+         * <p>
+         * Components without dependencies are in the first layer, every other component is one layer after
+         * its deepest dependency. Components within the same layer do not depend on each other.
+         * Dependencies that are not part of this sorter are ignored.
+         *
+         * @return A list of layers, each containing components in their original order.
+         */
+        public @NonNull List<List<Class<? extends Component>>> layers() {
+            final Map<Class<? extends Component>, Integer> depths = new HashMap<>();
+            final List<List<Class<? extends Component>>> layers = new ArrayList<>();
+
+            for (Class<? extends Component> componentClass : this.componentDependencies.keySet()) {
+                int depth = this.depth(componentClass, depths, new HashSet<>());
+                while (layers.size() <= depth) {
+                    layers.add(new ArrayList<>());
+                }
+                layers.get(depth).add(componentClass);
+            }
+            return layers;
+        }
+
+        /**
+         * Computes the layer depth of a component, ignoring dependency cycles.
+         */
+        private int depth(@NonNull Class<? extends Component> componentClass,
+                          @NonNull Map<Class<? extends Component>, Integer> depths,
+                          @NonNull Set<Class<? extends Component>> visiting) {
+            Integer known = depths.get(componentClass);
+            if (known != null) {
+                return known;
+            }
+
+            if (!visiting.add(componentClass)) {
+                return 0;
+            }
+
+            int depth = 0;
+            for (Class<? extends Component> dependency : this.componentDependencies.get(componentClass)) {
+                if (this.componentDependencies.containsKey(dependency)) {
+                    depth = Math.max(depth, this.depth(dependency, depths, visiting) + 1);
+                }
+            }
+
+            visiting.remove(componentClass);
+            depths.put(componentClass, depth);
+            return depth;
+        }
+
         /**
          * Recursively visits the components and their dependencies, adding them to the stack in correct order.
          *
@@ -0,0 +1,71 @@
+package me.sunmc.tools.component;
+
+import me.sunmc.tools.Tools;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A typed handle to a registered {@link Component}, resolved on first use and cached afterwards.
+ * <p>
+ * Intended for hot paths such as event handlers, where every lookup after the first one is a single field read.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * private static final ComponentRef<GameManager> GAME_MANAGER = ComponentRef.of(GameManager.class);
+ *
+ * @EventHandler
+ * public void onDamage(EntityDamageEvent event) {
+ *     GAME_MANAGER.get().handleDamage(event);
+ * }
+ * }</pre>
+ *
+ * @param <T> The type of the component.
+ */
+public final class ComponentRef<T extends Component> {
+
+    private final @NonNull Class<T> componentClass;
+    private volatile @Nullable T instance;
+
+    private ComponentRef(@NonNull Class<T> componentClass) {
+        this.componentClass = componentClass;
+    }
+
+    /**
+     * Creates a new reference to a component. The component is not looked up until {@link #get()} is called.
+     *
+     * @param componentClass Class of the component.
+     * @return A new reference to the component.
+     */
+    public static <T extends Component> @NonNull ComponentRef<T> of(@NonNull Class<T> componentClass) {
+        return new ComponentRef<>(componentClass);
+    }
+
+    /**
+     * Gets the referenced component, resolving it through {@link Tools#getComponent(Class)} on first use.
+     *
+     * @return Instance of the referenced component.
+     * @throws NullPointerException If the component is not registered.
+     */
+    public @NonNull T get() {
+        T instance = this.instance;
+        if (instance == null) {
+            instance = Tools.getComponent(this.componentClass);
+            this.instance = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * @return If the component has already been resolved.
+     */
+    public boolean isResolved() {
+        return this.instance != null;
+    }
+
+    /**
+     * @return Class of the referenced component.
+     */
+    public @NonNull Class<T> getComponentClass() {
+        return this.componentClass;
+    }
+}
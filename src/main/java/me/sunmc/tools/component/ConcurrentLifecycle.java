@@ -0,0 +1,19 @@
+package me.sunmc.tools.component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Component} whose {@link Component#onEnable()} and {@link Component#onDisable()} are safe to run off
+ * the main thread.
+ * <p>
+ * The {@link ComponentManager} enables components in layers based on {@link DependencyComponent}. Within a layer,
+ * components annotated with this run concurrently on the asynchronous executor while the others run on the main thread.
+ * The next layer only starts once every component of the current layer has finished or timed out.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConcurrentLifecycle {
+}
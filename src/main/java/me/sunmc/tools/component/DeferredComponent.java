@@ -0,0 +1,19 @@
+package me.sunmc.tools.component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an auto registered {@link Component} that is instantiated and enabled after the server has started.
+ * <p>
+ * The {@link ComponentManager} activates deferred components on the main thread over the following ticks, spending at
+ * most {@link ComponentManager#setDeferredActivationBudget(long, java.util.concurrent.TimeUnit) the activation budget}
+ * per tick. A deferred component requested through {@link ComponentManager#getComponent(Class)} before that is activated
+ * right away.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DeferredComponent {
+}
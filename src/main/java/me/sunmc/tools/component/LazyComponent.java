@@ -0,0 +1,20 @@
+package me.sunmc.tools.component;
+
+import me.sunmc.tools.Tools;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an auto registered {@link Component} that is only instantiated and enabled on first use.
+ * <p>
+ * The component is activated by the first {@link Tools#getComponent(Class)} or {@link ComponentManager#getComponent(Class)}
+ * call, which must happen on the main thread. Looking up a component that is not activated yet from another thread throws
+ * an {@link IllegalStateException}. If a component that is activated on startup depends on it, it is activated on startup as well.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface LazyComponent {
+}
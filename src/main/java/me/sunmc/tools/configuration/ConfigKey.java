@@ -0,0 +1,210 @@
+package me.sunmc.tools.configuration;
+
+import me.sunmc.tools.Tools;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Typed handle to a single configuration value, declared once with the configuration id, path, type and default value.
+ * <p>
+ * The value is deserialized on the first {@link #get()} and cached until the owning {@link ConfigurationProvider}
+ * is reloaded or modified, so reading a key on a hot path is a single volatile field read.
+ * <pre>{@code
+ * private static final ConfigKey<Double> DAMAGE_MULTIPLIER =
+ *         ConfigKey.of("config", Double.class, 1.0, "combat", "damage-multiplier");
+ *
+ * double multiplier = DAMAGE_MULTIPLIER.get();
+ * }</pre>
+ * Keys are bound to their provider on first use and stay referenced by it, so they are meant to be declared as
+ * constants rather than created per lookup.
+ *
+ * @param <T> Type of the configuration value.
+ */
+public final class ConfigKey<T> {
+
+    private static final @NonNull Object UNRESOLVED = new Object();
+
+    private final @NonNull String configId;
+    private final @NonNull Class<T> type;
+    private final @Nullable T defaultValue;
+    private final @NonNull Object[] path;
+
+    private volatile @Nullable ConfigurationProvider provider;
+    // Holds UNRESOLVED or the cached value, never guarded by a lock so invalidation cannot wait on a reader
+    private final @NonNull AtomicReference<@Nullable Object> value = new AtomicReference<>(UNRESOLVED);
+
+    private ConfigKey(@NonNull String configId, @NonNull Class<T> type, @Nullable T defaultValue,
+                      @NonNull Object[] path, @Nullable ConfigurationProvider provider) {
+        this.configId = configId;
+        this.type = type;
+        this.defaultValue = defaultValue;
+        this.path = path.clone();
+        this.provider = provider;
+
+        if (provider != null) {
+            provider.bindKey(this);
+        }
+    }
+
+    /**
+     * Creates a key for a configuration managed by the {@link ConfigurationManager} of the plugin.
+     * The configuration is looked up on the first {@link #get()}.
+     *
+     * @param configId     The configuration identifier.
+     * @param type         The class of the value.
+     * @param defaultValue The value returned if the path is missing or cannot be deserialized.
+     * @param path         The path to the value.
+     * @return The created key.
+     */
+    public static <T> @NonNull ConfigKey<T> of(@NonNull String configId, @NonNull Class<T> type,
+                                               @Nullable T defaultValue, @NonNull Object... path) {
+        return new ConfigKey<>(configId, type, defaultValue, path, null);
+    }
+
+    /**
+     * Creates a key for a configuration managed by the {@link ConfigurationManager} of the plugin.
+     *
+     * @param configId     The configuration identifier wrapped in {@link ConfigIdWrapper}.
+     * @param type         The class of the value.
+     * @param defaultValue The value returned if the path is missing or cannot be deserialized.
+     * @param path         The path to the value.
+     * @return The created key.
+     */
+    public static <T> @NonNull ConfigKey<T> of(@NonNull ConfigIdWrapper configId, @NonNull Class<T> type,
+                                               @Nullable T defaultValue, @NonNull Object... path) {
+        return of(configId.getKey(), type, defaultValue, path);
+    }
+
+    /**
+     * Creates a key bound directly to the provided configuration.
+     *
+     * @param provider     The owning configuration provider.
+     * @param type         The class of the value.
+     * @param defaultValue The value returned if the path is missing or cannot be deserialized.
+     * @param path         The path to the value.
+     * @return The created key.
+     */
+    static <T> @NonNull ConfigKey<T> bound(@NonNull ConfigurationProvider provider, @NonNull Class<T> type,
+                                           @Nullable T defaultValue, @NonNull Object... path) {
+        return new ConfigKey<>(provider.getFileId(), type, defaultValue, path, provider);
+    }
+
+    /**
+     * Gets the cached value of this key, deserializing it first if the configuration changed since the last read.
+     * {@link org.bukkit.inventory.ItemStack Items} and {@link org.bukkit.Location locations} are returned as copies of the cached value,
+     * and the world of a location is looked up on every call, so a world that was unloaded and loaded again is picked up.
+     *
+     * @return The value, or the default value if the path is missing, cannot be deserialized, the world of a location
+     * is not loaded or the configuration is not loaded.
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        Object current = this.value.get();
+        if (current == UNRESOLVED) {
+            current = this.resolve();
+        }
+        if (current == null) {
+            return null;
+        }
+
+        // Mutable values such as items are cached as a prototype and handed out as copies
+        final Object copy = ConfigSnapshot.copyOf(current);
+        return copy != null ? (T) copy : this.defaultValue;
+    }
+
+    /**
+     * Deserializes the value from the current snapshot without holding a lock, so concurrent readers may deserialize
+     * the same value twice. The result is only cached if the configuration was not modified meanwhile, otherwise the next
+     * {@link #get()} deserializes it again. Values that fail to deserialize are not cached, so a location whose world
+     * was not loaded yet is resolved again on the next call.
+     *
+     * @return The cached form of the value, see {@link ConfigSnapshot#prototypeOf(Object)}.
+     */
+    private @Nullable Object resolve() {
+        ConfigurationProvider provider = this.getProvider();
+        if (provider == null) {
+            // Not cached, the configuration may still be registered later on
+            return this.defaultValue;
+        }
+
+        final ConfigSnapshot snapshot = provider.getSnapshot();
+        final Object resolved;
+        try {
+            resolved = ConfigSnapshot.prototypeOf(snapshot.getNode(this.path).get(this.type, this.defaultValue));
+        } catch (Exception exception) {
+            return this.defaultValue;
+        }
+
+        if (this.value.compareAndSet(UNRESOLVED, resolved)
+                && (provider.getSnapshot() != snapshot || provider.hasPendingChanges())) {
+            // Changes made after our snapshot may have invalidated this key before the value above was stored
+            this.value.compareAndSet(resolved, UNRESOLVED);
+        }
+        return resolved;
+    }
+
+    private @Nullable ConfigurationProvider getProvider() {
+        ConfigurationProvider provider = this.provider;
+        if (provider == null) {
+            provider = Tools.getInstance().getConfigurationManager().getConfigById(this.configId).orElse(null);
+            if (provider != null) {
+                this.provider = provider;
+                provider.bindKey(this);
+            }
+        }
+        return provider;
+    }
+
+    /**
+     * Drops the cached value, so the next {@link #get()} deserializes it again.
+     */
+    void invalidate() {
+        this.value.set(UNRESOLVED);
+    }
+
+    /**
+     * @return If a value is currently cached.
+     */
+    public boolean isCached() {
+        return this.value.get() != UNRESOLVED;
+    }
+
+    /**
+     * @return The identifier of the owning configuration.
+     */
+    public @NonNull String getConfigId() {
+        return this.configId;
+    }
+
+    /**
+     * @return The class of the value.
+     */
+    public @NonNull Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The value returned if the path is missing or cannot be deserialized.
+     */
+    public @Nullable T getDefaultValue() {
+        return this.defaultValue;
+    }
+
+    /**
+     * @return A copy of the path to the value.
+     */
+    public @NonNull Object[] getPath() {
+        return this.path.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey{" + this.configId + ":" + Arrays.stream(this.path)
+                .map(String::valueOf)
+                .collect(Collectors.joining(".")) + " (" + this.type.getSimpleName() + ")}";
+    }
+}
@@ -0,0 +1,438 @@
+package me.sunmc.tools.configuration;
+
+import me.sunmc.tools.configuration.compact.CompactConfigTree;
+import me.sunmc.tools.configuration.serializers.sound.SoundWrapper;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, consistent view of a configuration at one point in time.
+ * <p>
+ * A {@link ConfigurationProvider} publishes a new snapshot on every reload or modification by swapping a single reference,
+ * so a snapshot never changes once it is published. Readers on any thread can pin a snapshot for the length of an operation
+ * and never observe a mix of values from before and after a reload.
+ * <p>
+ * The nodes returned by {@link #getRoot()} and {@link #getNode(Object...)} belong to the snapshot and must not be modified,
+ * use {@link ConfigurationProvider#set(Object, Object...)} or {@link ConfigurationProvider#update(ConfigurationProvider.Mutation)} instead.
+ * <p>
+ * A snapshot of a configuration in {@link StorageMode#COMPACT compact} storage mode holds a {@link CompactConfigTree}.
+ * Scalar getters read it directly, while node based access rebuilds a regular tree on demand, which is kept softly reachable.
+ * <p>
+ * Values of types that are expensive to deserialize, such as {@link ItemStack}, {@link Location} and {@link SoundWrapper},
+ * are deserialized once per snapshot and memoized, so they are invalidated by every reload or modification.
+ * Mutable values are handed out as clones of the memoized prototype. Locations are memoized by world name and coordinates,
+ * and their world is looked up on every read, so they never keep a world that was unloaded in the meantime.
+ */
+public final class ConfigSnapshot {
+
+    private final @NonNull String fileId;
+    private final @Nullable ConfigurationNode root;
+    private final @Nullable CompactConfigTree compact;
+    private final long version;
+    private final long createdAt;
+    private volatile @Nullable SoftReference<ConfigurationNode> materialized;
+    private volatile @Nullable Map<ValueKey, Object> memoized;
+
+    private static final @NonNull Set<Class<?>> MEMOIZED_TYPES = Set.of(ItemStack.class, Location.class, SoundWrapper.class);
+
+    ConfigSnapshot(@NonNull String fileId, @NonNull ConfigurationNode root, long version) {
+        this.fileId = fileId;
+        this.root = root;
+        this.compact = null;
+        this.version = version;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    ConfigSnapshot(@NonNull String fileId, @NonNull CompactConfigTree compact, long version) {
+        this.fileId = fileId;
+        this.root = null;
+        this.compact = compact;
+        this.version = version;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    private @NonNull ConfigurationNode node(@NonNull Object... path) {
+        return this.getRoot().node(path);
+    }
+
+    /**
+     * Gets a string value from this snapshot.
+     *
+     * @param path The path to the value.
+     * @return The string value, or null if not found.
+     */
+    public @Nullable String getString(@NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getString(null, path);
+        }
+        return this.node(path).getString();
+    }
+
+    /**
+     * Gets a string value with a default.
+     *
+     * @param defaultValue The default value.
+     * @param path The path to the value.
+     * @return The string value, or default if not found.
+     */
+    public @NonNull String getString(@NonNull String defaultValue, @NonNull Object... path) {
+        if (this.compact != null) {
+            return Objects.requireNonNull(this.compact.getString(defaultValue, path));
+        }
+        return this.node(path).getString(defaultValue);
+    }
+
+    /**
+     * Gets an integer value from this snapshot.
+     *
+     * @param path The path to the value.
+     * @return The integer value, or 0 if not found.
+     */
+    public int getInt(@NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getInt(0, path);
+        }
+        return this.node(path).getInt();
+    }
+
+    /**
+     * Gets an integer value with a default.
+     *
+     * @param defaultValue The default value.
+     * @param path The path to the value.
+     * @return The integer value, or default if not found.
+     */
+    public int getInt(int defaultValue, @NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getInt(defaultValue, path);
+        }
+        return this.node(path).getInt(defaultValue);
+    }
+
+    /**
+     * Gets a double value from this snapshot.
+     *
+     * @param path The path to the value.
+     * @return The double value, or 0.0 if not found.
+     */
+    public double getDouble(@NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getDouble(0, path);
+        }
+        return this.node(path).getDouble();
+    }
+
+    /**
+     * Gets a double value with a default.
+     *
+     * @param defaultValue The default value.
+     * @param path The path to the value.
+     * @return The double value, or default if not found.
+     */
+    public double getDouble(double defaultValue, @NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getDouble(defaultValue, path);
+        }
+        return this.node(path).getDouble(defaultValue);
+    }
+
+    /**
+     * Gets a boolean value from this snapshot.
+     *
+     * @param path The path to the value.
+     * @return The boolean value, or false if not found.
+     */
+    public boolean getBoolean(@NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getBoolean(false, path);
+        }
+        return this.node(path).getBoolean();
+    }
+
+    /**
+     * Gets a boolean value with a default.
+     *
+     * @param defaultValue The default value.
+     * @param path The path to the value.
+     * @return The boolean value, or default if not found.
+     */
+    public boolean getBoolean(boolean defaultValue, @NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getBoolean(defaultValue, path);
+        }
+        return this.node(path).getBoolean(defaultValue);
+    }
+
+    /**
+     * Gets a long value from this snapshot.
+     *
+     * @param path The path to the value.
+     * @return The long value, or 0L if not found.
+     */
+    public long getLong(@NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getLong(0, path);
+        }
+        return this.node(path).getLong();
+    }
+
+    /**
+     * Gets a long value with a default.
+     *
+     * @param defaultValue The default value.
+     * @param path The path to the value.
+     * @return The long value, or default if not found.
+     */
+    public long getLong(long defaultValue, @NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.getLong(defaultValue, path);
+        }
+        return this.node(path).getLong(defaultValue);
+    }
+
+    /**
+     * Gets a list of strings from this snapshot.
+     *
+     * @param path The path to the list.
+     * @return The string list, or empty list if not found.
+     */
+    public @NonNull List<String> getStringList(@NonNull Object... path) throws SerializationException {
+        if (this.compact != null) {
+            return this.compact.getStringList(path);
+        }
+        return this.node(path).getList(String.class, List.of());
+    }
+
+    /**
+     * Gets a list of integers from this snapshot.
+     *
+     * @param path The path to the list.
+     * @return The integer list, or empty list if not found.
+     */
+    public @NonNull List<Integer> getIntList(@NonNull Object... path) throws SerializationException {
+        if (this.compact != null) {
+            return this.compact.getIntList(path);
+        }
+        return this.node(path).getList(Integer.class, List.of());
+    }
+
+    /**
+     * Gets a typed object from this snapshot.
+     *
+     * @param type The class type.
+     * @param path The path to the value.
+     * @param <T> The type parameter.
+     * @return The object, or null if not found.
+     */
+    public <T> @Nullable T get(@NonNull Class<T> type, @NonNull Object... path) {
+        try {
+            if (MEMOIZED_TYPES.contains(type)) {
+                return this.getMemoized(type, path);
+            }
+            return this.node(path).get(type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a typed object with a default value.
+     *
+     * @param type The class type.
+     * @param defaultValue The default value.
+     * @param path The path to the value.
+     * @param <T> The type parameter.
+     * @return The object, or default if not found.
+     */
+    public <T> @NonNull T get(@NonNull Class<T> type, @NonNull T defaultValue, @NonNull Object... path) {
+        try {
+            T value = MEMOIZED_TYPES.contains(type) ? this.getMemoized(type, path) : this.node(path).get(type);
+            return value != null ? value : defaultValue;
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Deserializes a value once and hands out copies of it afterward. Failed or missing values are not memoized,
+     * so a location whose world was not loaded yet is resolved again on the next call.
+     */
+    private <T> @Nullable T getMemoized(@NonNull Class<T> type, @NonNull Object... path) throws SerializationException {
+        Map<ValueKey, Object> values = this.memoized;
+        if (values == null) {
+            synchronized (this) {
+                values = this.memoized;
+                if (values == null) {
+                    values = new ConcurrentHashMap<>();
+                    this.memoized = values;
+                }
+            }
+        }
+
+        final ValueKey key = new ValueKey(type, List.of(path));
+        Object value = values.get(key);
+        if (value == null) {
+            value = prototypeOf(this.node(path).get(type));
+            if (value == null) {
+                return null;
+            }
+            values.putIfAbsent(key, value);
+        }
+        return type.cast(copyOf(value));
+    }
+
+    /**
+     * Converts a deserialized value into the form it is memoized in. Locations are reduced to their world name
+     * and coordinates, since keeping the {@link World} would keep it after it was unloaded.
+     *
+     * @param value The deserialized value.
+     * @return The value to memoize.
+     */
+    static @Nullable Object prototypeOf(@Nullable Object value) {
+        if (value instanceof Location location && location.getWorld() != null) {
+            return new LocationPrototype(location.getWorld().getName(), location.getX(), location.getY(), location.getZ(),
+                    location.getYaw(), location.getPitch());
+        }
+        return value;
+    }
+
+    /**
+     * Copies a memoized value if it is mutable, so callers cannot modify the shared prototype.
+     *
+     * @param value The memoized value.
+     * @return A copy of mutable values, or the value itself. Null for a location whose world is not loaded.
+     */
+    static @Nullable Object copyOf(@NonNull Object value) {
+        if (value instanceof ItemStack item) {
+            return item.clone();
+        }
+        if (value instanceof LocationPrototype location) {
+            return location.toLocation();
+        }
+        if (value instanceof Location location) {
+            return location.clone();
+        }
+        return value;
+    }
+
+    /**
+     * @return The number of values memoized by this snapshot.
+     */
+    public int getMemoizedCount() {
+        Map<ValueKey, Object> values = this.memoized;
+        return values == null ? 0 : values.size();
+    }
+
+    /**
+     * Checks if a path exists in this snapshot.
+     *
+     * @param path The path to check.
+     * @return True if exists, false otherwise.
+     */
+    public boolean exists(@NonNull Object... path) {
+        if (this.compact != null) {
+            return this.compact.exists(path);
+        }
+        return !this.node(path).virtual();
+    }
+
+    /**
+     * Gets a node at the specified path. The node must not be modified.
+     *
+     * @param path The path to the node.
+     * @return The configuration node.
+     */
+    public @NonNull ConfigurationNode getNode(@NonNull Object... path) {
+        return this.node(path);
+    }
+
+    /**
+     * Gets a node wrapped in an Optional. The node must not be modified.
+     *
+     * @param path The path to the node.
+     * @return Optional containing the node if it exists.
+     */
+    public @NonNull Optional<ConfigurationNode> getNodeOptional(@NonNull Object... path) {
+        ConfigurationNode node = this.node(path);
+        return node.virtual() ? Optional.empty() : Optional.of(node);
+    }
+
+    /**
+     * @return The root node of this snapshot. The node must not be modified.
+     */
+    public @NonNull ConfigurationNode getRoot() {
+        if (this.root != null) {
+            return this.root;
+        }
+
+        SoftReference<ConfigurationNode> reference = this.materialized;
+        ConfigurationNode node = reference != null ? reference.get() : null;
+        if (node == null) {
+            node = Objects.requireNonNull(this.compact).materialize();
+            this.materialized = new SoftReference<>(node);
+        }
+        return node;
+    }
+
+    /**
+     * @return The compact tree of this snapshot, or null if the configuration is not stored compactly.
+     */
+    public @Nullable CompactConfigTree getCompactTree() {
+        return this.compact;
+    }
+
+    /**
+     * @return If this snapshot stores its values in a {@link CompactConfigTree}.
+     */
+    public boolean isCompact() {
+        return this.compact != null;
+    }
+
+    /**
+     * @return The file id of the configuration this snapshot belongs to.
+     */
+    public @NonNull String getFileId() {
+        return this.fileId;
+    }
+
+    /**
+     * @return Version of this snapshot, incremented by one for every snapshot published by the provider.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return Time in milliseconds at which this snapshot was created.
+     */
+    public long getCreatedAt() {
+        return this.createdAt;
+    }
+
+    /**
+     * A memoized location, resolving its world by name on every read.
+     */
+    private record LocationPrototype(@NonNull String world, double x, double y, double z, float yaw, float pitch) {
+        @Nullable Location toLocation() {
+            final World loaded = Bukkit.getWorld(this.world);
+            return loaded == null ? null : new Location(loaded, this.x, this.y, this.z, this.yaw, this.pitch);
+        }
+    }
+
+    private record ValueKey(@NonNull Class<?> type, @NonNull List<Object> path) {
+    }
+}
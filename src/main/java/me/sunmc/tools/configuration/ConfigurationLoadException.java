@@ -0,0 +1,42 @@
+package me.sunmc.tools.configuration;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thrown when one or more configurations listed in {@link LoadConfigurations} could not be loaded.
+ * <p>
+ * The failures are aggregated per file identifier, so every broken file is reported at once instead of only the first one.
+ */
+public class ConfigurationLoadException extends RuntimeException {
+
+    private final @NonNull Map<String, Throwable> failures;
+
+    public ConfigurationLoadException(@NonNull Map<String, Throwable> failures) {
+        super(buildMessage(failures));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+        this.failures.values().forEach(this::addSuppressed);
+    }
+
+    private static @NonNull String buildMessage(@NonNull Map<String, Throwable> failures) {
+        StringBuilder builder = new StringBuilder("Failed to load ")
+                .append(failures.size())
+                .append(failures.size() == 1 ? " configuration:" : " configurations:");
+
+        failures.forEach((identifier, cause) -> builder.append("\n - ")
+                .append(identifier)
+                .append(": ")
+                .append(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()));
+        return builder.toString();
+    }
+
+    /**
+     * @return Unmodifiable map of the failed configuration identifiers and the cause of each failure.
+     */
+    public @NonNull Map<String, Throwable> getFailures() {
+        return this.failures;
+    }
+}
@@ -2,11 +2,18 @@ package me.sunmc.tools.configuration;
 
 import io.leangen.geantyref.TypeToken;
 import me.sunmc.tools.Tools;
+import me.sunmc.tools.configuration.backup.ConfigBackupStore;
+import me.sunmc.tools.configuration.cache.ParsedConfigCache;
+import me.sunmc.tools.configuration.change.*;
+import me.sunmc.tools.configuration.group.DirectoryConfigGroup;
+import me.sunmc.tools.configuration.save.WriteBehindFlusher;
 import me.sunmc.tools.configuration.serializers.location.LocationConfigSerializer;
 import me.sunmc.tools.configuration.serializers.sound.SoundConfigSerializer;
 import me.sunmc.tools.configuration.serializers.sound.SoundWrapper;
 import me.sunmc.tools.item.config.ItemStackConfigSerializer;
+import me.sunmc.tools.profiler.StartupProfiler;
 import me.sunmc.tools.utils.bukkit.BukkitFileUtil;
+import me.sunmc.tools.utils.java.JavaFileUtil;
 import me.sunmc.tools.utils.java.LoggerUtil;
 import me.sunmc.tools.utils.java.SinglePointInitiator;
 import org.bukkit.Location;
@@ -14,47 +21,73 @@ import org.bukkit.inventory.ItemStack;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.ConfigurationOptions;
 import org.spongepowered.configurate.serialize.TypeSerializerCollection;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Enhanced configuration manager with advanced features:
  * - Multi-file support
+ * - Lazily loaded, LRU bounded directory groups
+ * - Parallel loading with a readiness API
  * - Custom serializers
- * - Hot reload capability
+ * - Hot reload capability with content hash change detection
+ * - Path-scoped change subscriptions
  * - Configuration validation
- * - Backup system
+ * - Content-addressed, compressed backup store
+ * - Dirty tracked, write-behind and atomic saving
+ * - Binary cache of parsed trees to skip YAML parsing on startup
  * - Thread-safe operations
  *
  * @version 1.0.0
  */
 public class ConfigurationManager extends SinglePointInitiator {
 
+    private static final @NonNull String LOADER_THREAD_PREFIX = "suntools-config-loader-";
+    private static final int MAX_LOADER_THREADS = 4;
+
     private final @NonNull Logger logger;
     private final @NonNull Map<String, ConfigurationProvider> configurations;
+    private final @NonNull Map<String, DirectoryConfigGroup> directoryGroups;
+    private final @NonNull Map<String, CompletableFuture<ConfigurationProvider>> loading;
+    private final @NonNull Map<String, Throwable> loadFailures;
+    private final @NonNull ConfigSubscriptionRegistry subscriptions;
+    private final @NonNull WriteBehindFlusher writeBehind;
+    private final @NonNull ConfigBackupStore backupStore;
+    private final @Nullable ParsedConfigCache parsedCache;
+    private final @NonNull Set<String> compactConfigurations;
     private final @NonNull Map<String, Long> lastModified;
+    private final @NonNull Map<String, String> contentHashes;
     private final @NonNull ConfigurationOptions options;
     private final @NonNull Tools plugin;
     private final @NonNull File configDirectory;
 
-    private boolean createBackups = true;
-    private int maxBackups = 5;
+    private volatile boolean createBackups = true;
+    private volatile @NonNull CompletableFuture<Void> loaded = CompletableFuture.completedFuture(null);
 
     public ConfigurationManager(@NonNull Tools plugin) throws IOException {
         this.configurations = new ConcurrentHashMap<>();
+        this.directoryGroups = new ConcurrentHashMap<>();
+        this.loading = new ConcurrentHashMap<>();
+        this.loadFailures = new ConcurrentHashMap<>();
         this.lastModified = new ConcurrentHashMap<>();
+        this.contentHashes = new ConcurrentHashMap<>();
         this.plugin = plugin;
         this.configDirectory = plugin.getDataFolder();
 
         Logger logger = LoggerUtil.createLoggerWithIdentifier(plugin, "ConfigManager");
         this.logger = logger;
+        this.subscriptions = new ConfigSubscriptionRegistry(logger);
+        this.writeBehind = new WriteBehindFlusher(plugin, this, logger);
+        this.backupStore = new ConfigBackupStore(logger, this.configDirectory.toPath().resolve("backups"));
 
         // Build type serializer collection
         TypeSerializerCollection serializers = TypeSerializerCollection.defaults()
@@ -67,7 +100,14 @@ public class ConfigurationManager extends SinglePointInitiator {
         this.options = ConfigurationOptions.defaults().serializers(serializers);
 
         Class<? extends Tools> mainClass = plugin.getClass();
-        if (!mainClass.isAnnotationPresent(LoadConfigurations.class)) {
+        LoadConfigurations annotation = mainClass.getAnnotation(LoadConfigurations.class);
+        this.parsedCache = annotation != null && annotation.cacheParsed()
+                ? new ParsedConfigCache(logger, this.configDirectory.toPath().resolve(".cache").resolve("configs"))
+                : null;
+        this.compactConfigurations = annotation != null ? Set.copyOf(Arrays.asList(annotation.compact())) : Set.of();
+        this.writeBehind.setAlignWithWorldSave(annotation != null && annotation.flushOnWorldSave());
+
+        if (annotation == null) {
             this.logger.info("No @LoadConfigurations annotation found, skipping auto-load");
             return;
         }
@@ -82,23 +122,154 @@ public class ConfigurationManager extends SinglePointInitiator {
             }
         }
 
-        // Load all configurations from annotation
-        for (String identifier : mainClass.getAnnotation(LoadConfigurations.class).value()) {
-            this.loadConfiguration(identifier);
+        // Load all configurations from annotation in the background
+        this.loadConfigurations(annotation.value());
+    }
+
+    /**
+     * Loads and parses the provided configurations concurrently on a bounded executor.
+     * <p>
+     * The executor is shut down as soon as every configuration finished loading. Failures are collected per
+     * file identifier and reported through {@link #whenLoaded()}.
+     *
+     * @param identifiers The configuration identifiers (without extension).
+     */
+    private void loadConfigurations(@NonNull String[] identifiers) {
+        if (identifiers.length == 0) {
+            return;
+        }
+
+        final AtomicInteger threadCounter = new AtomicInteger();
+        final int threads = Math.min(identifiers.length,
+                Math.min(MAX_LOADER_THREADS, Runtime.getRuntime().availableProcessors()));
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName(LOADER_THREAD_PREFIX + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final List<CompletableFuture<ConfigurationProvider>> futures = new ArrayList<>(identifiers.length);
+        for (String identifier : identifiers) {
+            futures.add(this.loading.computeIfAbsent(identifier, id -> CompletableFuture
+                    .supplyAsync(() -> this.loadConfiguration(id), executor)
+                    .whenComplete((provider, throwable) -> {
+                        if (throwable != null) {
+                            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                                    ? throwable.getCause() : throwable;
+                            this.loadFailures.put(id, cause);
+                            this.logger.error("Failed to load configuration: {}", id, cause);
+                        }
+                    })));
         }
+
+        this.loaded = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, throwable) -> {
+                    executor.shutdown();
+                    if (!this.loadFailures.isEmpty()) {
+                        throw new ConfigurationLoadException(this.loadFailures);
+                    }
+                    return null;
+                });
     }
 
     /**
      * Loads a configuration file.
      *
      * @param identifier The configuration identifier (without extension).
-     * @throws IOException If an I/O error occurs.
+     * @return The loaded configuration provider.
      */
-    private void loadConfiguration(@NonNull String identifier) throws IOException {
+    private @NonNull ConfigurationProvider loadConfiguration(@NonNull String identifier) {
+        final long startTime = System.nanoTime();
         File file = BukkitFileUtil.setupPluginFile(this.plugin, identifier + ".yml");
-        ConfigurationProvider provider = new ConfigurationProvider(identifier, file, this.options);
+        String hash = this.hashOf(file);
+        ConfigurationNode cached = this.parsedCache != null ? this.parsedCache.read(identifier, file, hash, this.options) : null;
+
+        ConfigurationProvider provider;
+        if (cached != null) {
+            provider = new ConfigurationProvider(identifier, file, cached);
+        } else {
+            provider = new ConfigurationProvider(identifier, file, this.options);
+            this.writeParsedCache(identifier, file, hash, provider.getRootNode());
+        }
+
+        if (this.compactConfigurations.contains(identifier)) {
+            provider.setStorageMode(StorageMode.COMPACT);
+        }
+
         this.registerConfig(provider);
-        this.lastModified.put(identifier, file.lastModified());
+        this.recordFileState(identifier, file, hash);
+        this.plugin.getStartupProfiler().record(StartupProfiler.CONFIG_LOAD, identifier, System.nanoTime() - startTime);
+        return provider;
+    }
+
+    /**
+     * Gets a future completing once the configuration with the provided identifier is loaded.
+     *
+     * @param identifier The configuration identifier.
+     * @return Future of the configuration provider. Completes exceptionally if the configuration failed to load
+     * or is not known to this manager.
+     */
+    public @NonNull CompletableFuture<ConfigurationProvider> getConfigFuture(@NonNull String identifier) {
+        ConfigurationProvider provider = this.configurations.get(identifier);
+        if (provider != null) {
+            return CompletableFuture.completedFuture(provider);
+        }
+
+        CompletableFuture<ConfigurationProvider> future = this.loading.get(identifier);
+        if (future != null) {
+            return future;
+        }
+        return CompletableFuture.failedFuture(new NoSuchElementException("Unknown configuration: " + identifier));
+    }
+
+    /**
+     * Gets a future completing once every configuration listed in {@link LoadConfigurations} is loaded.
+     *
+     * @return Future completing exceptionally with a {@link ConfigurationLoadException} if at least one configuration failed to load.
+     */
+    public @NonNull CompletableFuture<Void> whenLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Blocks until every configuration listed in {@link LoadConfigurations} is loaded.
+     *
+     * @throws ConfigurationLoadException If at least one configuration failed to load.
+     */
+    public void awaitLoaded() throws ConfigurationLoadException {
+        try {
+            this.loaded.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof ConfigurationLoadException loadException) {
+                throw loadException;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * @return If every configuration listed in {@link LoadConfigurations} finished loading, successfully or not.
+     */
+    public boolean isLoadingComplete() {
+        return this.loaded.isDone();
+    }
+
+    /**
+     * @return Unmodifiable map of the configuration identifiers that failed to load and the cause of each failure.
+     */
+    public @NonNull Map<String, Throwable> getLoadFailures() {
+        return Collections.unmodifiableMap(this.loadFailures);
+    }
+
+    /**
+     * Waits for the background loading to finish without rethrowing failures, which are already logged.
+     */
+    private void awaitLoadedQuietly() {
+        try {
+            this.loaded.join();
+        } catch (CompletionException | CancellationException ignored) {
+        }
     }
 
     /**
@@ -134,9 +305,10 @@ public class ConfigurationManager extends SinglePointInitiator {
                 }
             }
 
+            String hash = this.hashOf(file);
             ConfigurationProvider provider = new ConfigurationProvider(identifier, file, this.options);
             this.registerConfig(provider);
-            this.lastModified.put(identifier, file.lastModified());
+            this.recordFileState(identifier, file, hash);
             return provider;
 
         } catch (IOException e) {
@@ -145,25 +317,85 @@ public class ConfigurationManager extends SinglePointInitiator {
         }
     }
 
+    /**
+     * Registers a directory holding one configuration file per entry, such as one file per arena.
+     * Only the file names are indexed, each file is parsed on first access, and at most {@code maxLoaded} entries
+     * are kept in memory. Modified entries are written by the same flushes as regular configurations.
+     *
+     * @param directory The directory, relative to the data folder.
+     * @param maxLoaded The maximum number of entries kept in memory.
+     * @return The registered group, or null if the directory could not be created or listed.
+     */
+    public @Nullable DirectoryConfigGroup registerDirectory(@NonNull String directory, int maxLoaded) {
+        final DirectoryConfigGroup existing = this.directoryGroups.get(directory);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            DirectoryConfigGroup group = new DirectoryConfigGroup(directory, this.configDirectory.toPath().resolve(directory),
+                    this.options, maxLoaded, runnable -> this.plugin.getSchedulerAdapter().executeAsync(runnable), this.logger);
+            DirectoryConfigGroup previous = this.directoryGroups.putIfAbsent(directory, group);
+            if (previous != null) {
+                return previous;
+            }
+
+            this.logger.info("Registered the configuration directory '{}' with {} files.", directory, group.getKeys().size());
+            return group;
+        } catch (IOException e) {
+            this.logger.error("Failed to register configuration directory: {}", directory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Find a registered directory group based on its directory.
+     *
+     * @param directory The directory, relative to the data folder.
+     * @return Instance of the found {@link DirectoryConfigGroup} wrapped in an {@link Optional}.
+     */
+    public @NonNull Optional<DirectoryConfigGroup> getDirectoryGroup(@NonNull String directory) {
+        return Optional.ofNullable(this.directoryGroups.get(directory));
+    }
+
     /**
      * Reloads all configurations with default options.
      */
     public void reloadConfigurations() {
-        this.logger.info("Reloading all configurations...");
+        this.reloadConfigurations(false);
+    }
+
+    /**
+     * Reloads configurations with default options.
+     *
+     * @param onlyChanged If true, only files whose content hash differs from the loaded version are parsed again.
+     */
+    public void reloadConfigurations(boolean onlyChanged) {
+        this.awaitLoadedQuietly();
+        this.logger.info(onlyChanged ? "Reloading changed configurations..." : "Reloading all configurations...");
         int reloaded = 0;
+        int unchanged = 0;
 
         for (ConfigurationProvider provider : this.configurations.values()) {
             try {
-                provider.reload(this.getDefaultOptions());
-                this.lastModified.put(provider.getFileId(),
-                        new File(this.configDirectory, provider.getFileId() + ".yml").lastModified());
+                String hash = this.hashOf(provider.getFile());
+                if (onlyChanged && hash != null && hash.equals(this.contentHashes.get(provider.getFileId()))) {
+                    unchanged++;
+                    continue;
+                }
+
+                this.applyReload(provider, this.parse(provider, hash), hash, null, null);
                 reloaded++;
             } catch (Exception e) {
                 this.logger.error("Failed to reload configuration: {}", provider.getFileId(), e);
             }
         }
 
-        this.logger.info("Reloaded {}/{} configurations", reloaded, this.configurations.size());
+        if (onlyChanged) {
+            this.logger.info("Reloaded {}/{} configurations, {} unchanged", reloaded, this.configurations.size(), unchanged);
+        } else {
+            this.logger.info("Reloaded {}/{} configurations", reloaded, this.configurations.size());
+        }
     }
 
     /**
@@ -180,13 +412,10 @@ public class ConfigurationManager extends SinglePointInitiator {
         }
 
         try {
-            if (this.createBackups) {
-                this.createBackup(identifier);
-            }
+            this.backup(provider);
 
-            provider.reload(this.options);
-            this.lastModified.put(identifier,
-                    new File(this.configDirectory, identifier + ".yml").lastModified());
+            String hash = this.hashOf(provider.getFile());
+            this.applyReload(provider, this.parse(provider, hash), hash, null, null);
             this.logger.info("Reloaded configuration: {}", identifier);
             return true;
         } catch (Exception e) {
@@ -196,64 +425,229 @@ public class ConfigurationManager extends SinglePointInitiator {
     }
 
     /**
-     * Creates a backup of a configuration file.
+     * Reloads a specific configuration without parsing it on the main thread.
+     * <p>
+     * The file is parsed on the async executor of the {@link me.sunmc.tools.scheduler.interfaces.SchedulerAdapter}.
+     * The structural diff against the current snapshot is computed on the async executor as well.
+     * Only the snapshot swap, the notification of the {@link #subscribe(String, ConfigChangeListener, Object...) subscribers}
+     * and the provided callback run on the main thread, in the same task. If the file fails to parse,
+     * the previous configuration stays in place and the returned future completes exceptionally without touching the main thread.
+     * If the content hash of the file did not change since it was loaded, nothing is parsed or published and the future
+     * completes with an empty change set. Otherwise, the new content is stored in the {@link ConfigBackupStore backup store}.
      *
      * @param identifier The configuration identifier.
+     * @param onApplied  Callback run on the main thread right after a new snapshot was published, or {@code null}.
+     * @return Future completing with the changes applied by the reload.
      */
-    private void createBackup(@NonNull String identifier) {
-        try {
-            File original = new File(this.configDirectory, identifier + ".yml");
-            if (!original.exists()) {
-                return;
-            }
+    public @NonNull CompletableFuture<ConfigChangeSet> reloadConfigurationAsync(@NonNull String identifier,
+                                                                                 @Nullable Consumer<ConfigChangeSet> onApplied) {
+        final ConfigurationProvider provider = this.configurations.get(identifier);
+        if (provider == null) {
+            return CompletableFuture.failedFuture(new NoSuchElementException("Unknown configuration: " + identifier));
+        }
 
-            File backupDir = new File(this.configDirectory, "backups");
-            if (!backupDir.exists()) {
-                backupDir.mkdir();
-            }
+        final ConfigSnapshot base = provider.getSnapshot();
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    String hash = this.hashOf(provider.getFile());
+                    if (hash != null && hash.equals(this.contentHashes.get(identifier))) {
+                        return null;
+                    }
 
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            File backup = new File(backupDir, identifier + "_" + timestamp + ".yml");
+                    this.backup(provider);
 
-            Files.copy(original.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            this.logger.debug("Created backup: {}", backup.getName());
+                    try {
+                        ConfigurationNode root = this.parse(provider, hash);
+                        return new ParsedConfiguration(root, hash, ConfigDiff.diff(base.getRoot(), root));
+                    } catch (ConfigurateException exception) {
+                        throw new CompletionException(exception);
+                    }
+                }, this.plugin.getSchedulerAdapter().async())
+                .thenCompose(parsed -> {
+                    if (parsed == null) {
+                        return CompletableFuture.completedFuture(new ConfigChangeSet(identifier, base, base, List.of()));
+                    }
 
-            // Clean old backups
-            this.cleanOldBackups(identifier, backupDir);
+                    return CompletableFuture.supplyAsync(() -> {
+                        final ConfigChangeSet changeSet = this.applyReload(provider, parsed.root(), parsed.hash(), base, parsed.changes());
+                        if (onApplied != null) {
+                            onApplied.accept(changeSet);
+                        }
+                        return changeSet;
+                    }, this.plugin.getSchedulerAdapter().sync());
+                });
+    }
 
-        } catch (IOException e) {
-            this.logger.warn("Failed to create backup for: {}", identifier, e);
+    /**
+     * Publishes a parsed tree and notifies the subscribers affected by the changes.
+     *
+     * @param provider The reloaded configuration.
+     * @param root     The parsed root node.
+     * @param hash     The content hash of the parsed file, or null if it could not be computed.
+     * @param base     The snapshot the changes were computed against, or null if they were not computed yet.
+     * @param changes  The precomputed changes, only used if the snapshot is still the current one.
+     * @return The changes applied by the reload.
+     */
+    private @NonNull ConfigChangeSet applyReload(@NonNull ConfigurationProvider provider, @NonNull ConfigurationNode root,
+                                                 @Nullable String hash, @Nullable ConfigSnapshot base,
+                                                 @Nullable List<ConfigChange> changes) {
+        final ConfigSnapshot previous = Objects.requireNonNull(provider.apply(root));
+        final List<ConfigChange> applied = previous == base && changes != null
+                ? changes
+                : ConfigDiff.diff(previous.getRoot(), root);
+
+        this.recordFileState(provider.getFileId(), provider.getFile(), hash);
+
+        final ConfigChangeSet changeSet = new ConfigChangeSet(provider.getFileId(), previous, provider.getSnapshot(), applied);
+        this.subscriptions.dispatch(changeSet);
+        return changeSet;
+    }
+
+    /**
+     * Subscribes a listener to changes of a path in a configuration.
+     * <p>
+     * On every reload, the listener is only notified if the value at the path, or anything below it, actually changed.
+     *
+     * @param identifier The configuration identifier.
+     * @param listener   The listener receiving the old and new node at the path.
+     * @param path       The path to watch. If empty, any change of the configuration is reported.
+     * @return Handle of the subscription, which can be used to unsubscribe.
+     */
+    public @NonNull ConfigSubscription subscribe(@NonNull String identifier, @NonNull ConfigChangeListener listener,
+                                                 @NonNull Object... path) {
+        return this.subscriptions.subscribe(identifier, listener, path);
+    }
+
+    /**
+     * Subscribes a listener to changes of a path in a configuration.
+     *
+     * @param identifier The configuration identifier wrapped in {@link ConfigIdWrapper}.
+     * @param listener   The listener receiving the old and new node at the path.
+     * @param path       The path to watch. If empty, any change of the configuration is reported.
+     * @return Handle of the subscription, which can be used to unsubscribe.
+     */
+    public @NonNull ConfigSubscription subscribe(@NonNull ConfigIdWrapper identifier, @NonNull ConfigChangeListener listener,
+                                                 @NonNull Object... path) {
+        return this.subscribe(identifier.getKey(), listener, path);
+    }
+
+    /**
+     * @return Registry of the path-scoped configuration subscriptions.
+     */
+    public @NonNull ConfigSubscriptionRegistry getSubscriptions() {
+        return this.subscriptions;
+    }
+
+    /**
+     * Parsed tree together with its content hash and its diff against the snapshot it was parsed over.
+     */
+    private record ParsedConfiguration(@NonNull ConfigurationNode root, @Nullable String hash,
+                                       @NonNull List<ConfigChange> changes) {
+    }
+
+    /**
+     * Parses the file of a configuration and refreshes its entry in the parsed configuration cache.
+     */
+    private @NonNull ConfigurationNode parse(@NonNull ConfigurationProvider provider, @Nullable String hash) throws ConfigurateException {
+        ConfigurationNode root = provider.parse(this.options);
+        this.writeParsedCache(provider.getFileId(), provider.getFile(), hash, root);
+        return root;
+    }
+
+    private void writeParsedCache(@NonNull String identifier, @NonNull File file, @Nullable String hash,
+                                  @NonNull ConfigurationNode root) {
+        if (this.parsedCache != null) {
+            this.parsedCache.write(identifier, file, hash, root);
+        }
+    }
+
+    /**
+     * Stores the modification time and content hash of a loaded configuration file.
+     */
+    private void recordFileState(@NonNull String identifier, @NonNull File file, @Nullable String hash) {
+        this.lastModified.put(identifier, file.lastModified());
+        if (hash != null) {
+            this.contentHashes.put(identifier, hash);
+        } else {
+            this.contentHashes.remove(identifier);
+        }
+    }
+
+    /**
+     * @return The content hash of the file, or null if it could not be read.
+     */
+    private @Nullable String hashOf(@NonNull File file) {
+        try {
+            return JavaFileUtil.hashFile(file.toPath());
+        } catch (IOException exception) {
+            this.logger.debug("Could not hash configuration file: {}", file, exception);
+            return null;
         }
     }
 
     /**
-     * Cleans old backups keeping only the most recent ones.
+     * Checks if the content of a configuration file differs from the version that was loaded, by comparing content hashes.
+     * Unlike {@link #hasBeenModified(String)}, saving a file without changing its bytes does not count as a modification.
+     *
+     * @param identifier The configuration identifier.
+     * @return True if the content changed or the file could not be hashed, false otherwise.
      */
-    private void cleanOldBackups(@NonNull String identifier, @NonNull File backupDir) {
-        File[] backups = backupDir.listFiles((dir, name) ->
-                name.startsWith(identifier + "_") && name.endsWith(".yml"));
+    public boolean hasContentChanged(@NonNull String identifier) {
+        ConfigurationProvider provider = this.configurations.get(identifier);
+        if (provider == null) {
+            return false;
+        }
+
+        String hash = this.hashOf(provider.getFile());
+        return hash == null || !hash.equals(this.contentHashes.get(identifier));
+    }
 
-        if (backups == null || backups.length <= this.maxBackups) {
+    /**
+     * Stores the current content of a configuration file in the backup store in the background, if backups are enabled.
+     * Content that did not change since the latest backup is not stored again.
+     */
+    private void backup(@NonNull ConfigurationProvider provider) {
+        if (!this.createBackups) {
             return;
         }
 
-        // Sort by modification time (oldest first)
-        Arrays.sort(backups, Comparator.comparingLong(File::lastModified));
+        this.backupStore.backup(provider.getFileId(), provider.getFile().toPath()).exceptionally(throwable -> {
+            this.logger.warn("Failed to create backup for: {}", provider.getFileId(), throwable);
+            return null;
+        });
+    }
 
-        // Delete oldest backups
-        int toDelete = backups.length - this.maxBackups;
-        for (int i = 0; i < toDelete; i++) {
-            if (backups[i].delete()) {
-                this.logger.debug("Deleted old backup: {}", backups[i].getName());
-            }
+    /**
+     * Restores a backup generation of a configuration and reloads it.
+     * The current content of the file is backed up first, so the restore can be undone the same way.
+     *
+     * @param identifier The configuration identifier.
+     * @param generation The generation number, as listed by {@link ConfigBackupStore#getGenerations(String)}.
+     * @return Future completing with the changes applied by reloading the restored file.
+     */
+    public @NonNull CompletableFuture<ConfigChangeSet> restoreBackup(@NonNull String identifier, long generation) {
+        final ConfigurationProvider provider = this.configurations.get(identifier);
+        if (provider == null) {
+            return CompletableFuture.failedFuture(new NoSuchElementException("Unknown configuration: " + identifier));
         }
+
+        return this.backupStore.restore(identifier, generation, provider.getFile().toPath())
+                .thenCompose(restored -> this.reloadConfigurationAsync(identifier, null));
+    }
+
+    /**
+     * @return Store holding the backups of the configurations.
+     */
+    public @NonNull ConfigBackupStore getBackupStore() {
+        return this.backupStore;
     }
 
     /**
-     * Saves a configuration to disk.
+     * Saves a configuration to disk on the calling thread, if it was modified since it was last loaded or saved,
+     * or if its file does not exist. The file is replaced atomically.
      *
      * @param identifier The configuration identifier.
-     * @return True if saved successfully, false otherwise.
+     * @return True if saved successfully or there was nothing to save, false otherwise.
      */
     public boolean saveConfiguration(@NonNull String identifier) {
         ConfigurationProvider provider = this.configurations.get(identifier);
@@ -263,7 +657,13 @@ public class ConfigurationManager extends SinglePointInitiator {
         }
 
         try {
-            provider.save();
+            if (!provider.getFile().exists()) {
+                provider.save();
+            } else if (!provider.saveIfDirty()) {
+                return true;
+            }
+
+            this.recordFileState(identifier, provider.getFile(), this.hashOf(provider.getFile()));
             this.logger.info("Saved configuration: {}", identifier);
             return true;
         } catch (Exception e) {
@@ -273,22 +673,72 @@ public class ConfigurationManager extends SinglePointInitiator {
     }
 
     /**
-     * Saves all configurations to disk.
+     * Saves all modified configurations to disk on the async executor.
+     * Configurations that were not modified since they were last loaded or saved are not written.
+     *
+     * @return Future completing with the number of written configurations.
+     */
+    public @NonNull CompletableFuture<Integer> saveAllConfigurations() {
+        return this.writeBehind.requestFlush().whenComplete((saved, throwable) -> {
+            if (throwable != null) {
+                this.logger.error("Failed to save configurations", throwable);
+            } else {
+                this.logger.info("Saved {} modified configurations", saved);
+            }
+        });
+    }
+
+    /**
+     * Writes every dirty configuration to disk on the calling thread, replacing each file atomically.
+     * A configuration modified while it is being written stays dirty and is written by the next flush.
+     *
+     * @return The number of written configurations.
      */
-    public void saveAllConfigurations() {
-        this.logger.info("Saving all configurations...");
+    public int flushDirty() {
+        this.awaitLoadedQuietly();
         int saved = 0;
 
         for (ConfigurationProvider provider : this.configurations.values()) {
+            if (!provider.isDirty()) {
+                continue;
+            }
+
             try {
-                provider.save();
-                saved++;
-            } catch (Exception e) {
+                if (provider.saveIfDirty()) {
+                    // Recorded so the watcher does not reload the file we just wrote
+                    this.recordFileState(provider.getFileId(), provider.getFile(), this.hashOf(provider.getFile()));
+                    saved++;
+                }
+            } catch (IOException e) {
                 this.logger.error("Failed to save configuration: {}", provider.getFileId(), e);
             }
         }
 
-        this.logger.info("Saved {}/{} configurations", saved, this.configurations.size());
+        for (DirectoryConfigGroup group : this.directoryGroups.values()) {
+            saved += group.flushDirty();
+        }
+
+        if (saved > 0) {
+            this.logger.debug("Flushed {} modified configurations", saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Writes the remaining modified configurations and finishes the pending backups, each waiting at most the provided deadline.
+     *
+     * @param timeoutMillis The deadline in milliseconds.
+     */
+    public void shutdown(long timeoutMillis) {
+        this.writeBehind.shutdown(timeoutMillis, TimeUnit.MILLISECONDS);
+        this.backupStore.close(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Flusher writing modified configurations to disk in the background.
+     */
+    public @NonNull WriteBehindFlusher getWriteBehind() {
+        return this.writeBehind;
     }
 
     /**
@@ -308,11 +758,12 @@ public class ConfigurationManager extends SinglePointInitiator {
     }
 
     /**
-     * Gets all loaded configurations.
+     * Gets all loaded configurations, waiting for the background loading to finish first.
      *
      * @return Unmodifiable map of all configurations.
      */
     public @NonNull Map<String, ConfigurationProvider> getAllConfigurations() {
+        this.awaitLoadedQuietly();
         return Collections.unmodifiableMap(this.configurations);
     }
 
@@ -322,11 +773,12 @@ public class ConfigurationManager extends SinglePointInitiator {
      * @return The count of loaded configurations.
      */
     public int getConfigurationCount() {
+        this.awaitLoadedQuietly();
         return this.configurations.size();
     }
 
     /**
-     * Checks if a configuration is loaded.
+     * Checks if a configuration is loaded. Returns {@code false} for a configuration that is still loading in the background.
      *
      * @param identifier The configuration identifier.
      * @return True if loaded, false otherwise.
@@ -347,16 +799,32 @@ public class ConfigurationManager extends SinglePointInitiator {
 
     /**
      * Find a cached configuration based on its identifier.
+     * <p>
+     * If the configuration is still loading in the background, this call blocks until it is loaded.
      *
      * @param identifier The identifier to find a configuration with.
      * @return Instance of the found {@link ConfigurationProvider} wrapped in an {@link Optional}.
      */
     public Optional<ConfigurationProvider> getConfigById(@NonNull String identifier) {
-        return Optional.ofNullable(this.configurations.get(identifier));
+        ConfigurationProvider provider = this.configurations.get(identifier);
+        if (provider != null) {
+            return Optional.of(provider);
+        }
+
+        CompletableFuture<ConfigurationProvider> future = this.loading.get(identifier);
+        if (future == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException | CancellationException exception) {
+            return Optional.empty();
+        }
     }
 
     /**
-     * Sets whether to create backups before reloading.
+     * Sets whether reloaded configurations are stored in the {@link ConfigBackupStore backup store}.
      *
      * @param createBackups True to create backups, false otherwise.
      */
@@ -365,12 +833,12 @@ public class ConfigurationManager extends SinglePointInitiator {
     }
 
     /**
-     * Sets the maximum number of backups to keep.
+     * Sets the maximum number of backup generations to keep per configuration.
      *
-     * @param maxBackups The maximum number of backups.
+     * @param maxBackups The maximum number of backup generations.
      */
     public void setMaxBackups(int maxBackups) {
-        this.maxBackups = Math.max(1, maxBackups);
+        this.backupStore.setMaxGenerations(maxBackups);
     }
 
     /**
@@ -1,7 +1,9 @@
 package me.sunmc.tools.configuration;
 
+import me.sunmc.tools.configuration.compact.CompactConfigTree;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.BasicConfigurationNode;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.ConfigurationOptions;
@@ -11,8 +13,17 @@ import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Enhanced configuration provider with convenience methods.
@@ -20,9 +31,12 @@ import java.util.Optional;
  * <p>Features:
  * - Easy value retrieval
  * - Type-safe getters
+ * - Cached typed {@link ConfigKey keys}
+ * - Immutable {@link ConfigSnapshot snapshots} published atomically
+ * - Optional {@link StorageMode#COMPACT compact} storage for large read-mostly trees
  * - Default value support
  * - Path traversal helpers
- * - Save functionality
+ * - Dirty tracking and atomic saving
  * - Reload capability
  *
  * @version 1.0.0
@@ -31,8 +45,16 @@ public class ConfigurationProvider {
 
     private final @NonNull String fileId;
     private final @NonNull File file;
-    private @NonNull ConfigurationLoader<?> loader;
-    private ConfigurationNode rootNode;
+    private final @NonNull AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private final @NonNull ReentrantLock writeLock = new ReentrantLock();
+    private final @NonNull Object saveLock = new Object();
+    private final @NonNull AtomicBoolean dirty = new AtomicBoolean();
+    private final @NonNull Set<ConfigKey<?>> keys = ConcurrentHashMap.newKeySet();
+    // Copy of the current tree receiving set() calls until it is published, guarded by the write lock
+    private volatile @Nullable ConfigurationNode pending;
+    private final @NonNull ConfigurationLoader<?> loader;
+    private volatile @NonNull StorageMode storageMode = StorageMode.NODE;
+    private volatile @Nullable Runnable dirtyListener;
 
     public ConfigurationProvider(@NonNull String fileId, @NonNull File file, @NonNull ConfigurationOptions options) {
         this.fileId = fileId;
@@ -41,6 +63,21 @@ public class ConfigurationProvider {
         this.reload(options);
     }
 
+    /**
+     * Creates a provider from an already parsed tree, for example one read from the
+     * {@link me.sunmc.tools.configuration.cache.ParsedConfigCache parsed configuration cache}.
+     *
+     * @param fileId The file id of this configuration.
+     * @param file   The file this configuration is saved to and reloaded from.
+     * @param root   The parsed root node. The node must not be modified afterward.
+     */
+    public ConfigurationProvider(@NonNull String fileId, @NonNull File file, @NonNull ConfigurationNode root) {
+        this.fileId = fileId;
+        this.file = file;
+        this.loader = this.setupConfigLoader();
+        this.apply(root);
+    }
+
     /**
      * Sets up the configuration loader.
      */
@@ -61,31 +98,295 @@ public class ConfigurationProvider {
      * @param options Configuration options that should be used when reloading.
      */
     public void reload(@NonNull ConfigurationOptions options) {
+        final ConfigurationNode root;
+
         try {
-            this.loader = this.setupConfigLoader();
-            this.rootNode = this.loader.load(options);
+            root = this.parse(options);
         } catch (ConfigurateException exception) {
             throw new RuntimeException("Something went wrong when loading in the configuration with file id '" + this.fileId + "'", exception);
         }
+        this.apply(root);
+    }
+
+    /**
+     * Parses the configuration file into a new tree without publishing it.
+     * <p>
+     * This is the expensive half of a reload and is safe to call from any thread. The current snapshot stays in place
+     * until the returned tree is passed to {@link #apply(ConfigurationNode)}, so a file that fails to parse leaves the
+     * previous configuration untouched.
+     *
+     * @param options Configuration options that should be used when parsing.
+     * @return The parsed root node.
+     * @throws ConfigurateException If the file could not be read or parsed.
+     */
+    public @NonNull ConfigurationNode parse(@NonNull ConfigurationOptions options) throws ConfigurateException {
+        return this.loader.load(options);
+    }
+
+    /**
+     * Publishes a tree created by {@link #parse(ConfigurationOptions)} as the new snapshot of this configuration.
+     * The published tree reflects the file, so this configuration is no longer {@link #isDirty() dirty} afterward.
+     *
+     * @param root The parsed root node. The node must not be modified afterward.
+     * @return The previously published snapshot, or {@code null} if this is the first one.
+     */
+    public @Nullable ConfigSnapshot apply(@NonNull ConfigurationNode root) {
+        this.writeLock.lock();
+        try {
+            this.pending = null;
+            this.dirty.set(false);
+            return this.publish(root);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a new snapshot with the provided root node and drops the cached values of all bound keys.
+     * Must be called while holding the write lock.
+     *
+     * @param root The root node of the new snapshot. The node must not be modified afterward.
+     * @return The previously published snapshot, or {@code null} if this is the first one.
+     */
+    private @Nullable ConfigSnapshot publish(@NonNull ConfigurationNode root) {
+        final ConfigSnapshot previous = this.snapshot.get();
+        final long version = previous == null ? 1 : previous.getVersion() + 1;
+
+        this.snapshot.set(this.storageMode == StorageMode.COMPACT
+                ? new ConfigSnapshot(this.fileId, CompactConfigTree.of(root), version)
+                : new ConfigSnapshot(this.fileId, root, version));
+        this.invalidateKeys();
+        return previous;
+    }
+
+    /**
+     * Gets the currently published snapshot of this configuration, first publishing the values changed by
+     * {@link #set(Object, Object...)} since the last snapshot.
+     * <p>
+     * Readers never wait for writers: while another thread is modifying this configuration, the last published
+     * snapshot is returned, and the changes are published by the first read after the modification finished.
+     * <p>
+     * Pin the returned snapshot to read several values that must be consistent with each other,
+     * since a reload may publish a new snapshot between two calls on this provider.
+     *
+     * @return The current {@link ConfigSnapshot}.
+     */
+    public @NonNull ConfigSnapshot getSnapshot() {
+        if (this.pending != null && this.writeLock.tryLock()) {
+            try {
+                this.publishPending();
+            } finally {
+                this.writeLock.unlock();
+            }
+        }
+        return this.snapshot.get();
+    }
+
+    /**
+     * @return If values changed by {@link #set(Object, Object...)} have not been published as a snapshot yet.
+     */
+    boolean hasPendingChanges() {
+        return this.pending != null;
+    }
+
+    /**
+     * Publishes the tree modified by {@link #set(Object, Object...)}, if any. Must be called while holding the write lock.
+     */
+    private void publishPending() {
+        final ConfigurationNode root = this.pending;
+        if (root != null) {
+            this.pending = null;
+            this.publish(root);
+        }
+    }
+
+    /**
+     * Changes how this configuration keeps its tree in memory, republishing the current values in the new mode.
+     *
+     * @param storageMode The storage mode to use from now on.
+     */
+    public void setStorageMode(@NonNull StorageMode storageMode) {
+        this.writeLock.lock();
+        try {
+            if (this.storageMode == storageMode) {
+                return;
+            }
+
+            this.storageMode = storageMode;
+            this.publishPending();
+            this.publish(this.snapshot.get().getRoot());
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return How this configuration keeps its tree in memory.
+     */
+    public @NonNull StorageMode getStorageMode() {
+        return this.storageMode;
+    }
+
+    /**
+     * Applies a modification to a copy of the current tree and publishes the result as a new snapshot.
+     * Concurrent readers keep seeing the previous snapshot until the modification is complete.
+     * If the modification throws, nothing is published. The configuration is marked {@link #isDirty() dirty} until the next save.
+     * <p>
+     * Copying the tree costs time proportional to its size, so change several values in a single call
+     * rather than calling this method once per value.
+     *
+     * @param mutation The modification to apply to the copied root node.
+     */
+    public void update(@NonNull Mutation mutation) {
+        this.writeLock.lock();
+        try {
+            this.publishPending();
+            final ConfigurationNode copy = this.snapshot.get().getRoot().copy();
+
+            try {
+                mutation.apply(copy);
+            } catch (SerializationException exception) {
+                throw new RuntimeException("Failed to modify the configuration with file id '" + this.fileId + "'", exception);
+            }
+            this.publish(copy);
+            this.markDirty();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Creates a typed key bound to this configuration. The value of the key is cached until this configuration is reloaded or modified.
+     *
+     * @param type         The class of the value.
+     * @param defaultValue The value returned if the path is missing or cannot be deserialized.
+     * @param path         The path to the value.
+     * @param <T>          The type parameter.
+     * @return The created key.
+     */
+    public <T> @NonNull ConfigKey<T> key(@NonNull Class<T> type, @Nullable T defaultValue, @NonNull Object... path) {
+        return ConfigKey.bound(this, type, defaultValue, path);
+    }
+
+    /**
+     * Registers a key whose cached value is dropped whenever this configuration changes.
+     */
+    void bindKey(@NonNull ConfigKey<?> key) {
+        this.keys.add(key);
+    }
+
+    /**
+     * Drops the cached values of all keys bound to this configuration.
+     */
+    private void invalidateKeys() {
+        this.keys.forEach(ConfigKey::invalidate);
     }
 
     /**
-     * Saves this configuration to disk.
+     * Saves this configuration to disk, whether it was modified or not.
+     * <p>
+     * The current snapshot is written to a temporary file next to the configuration, which then replaces it with an atomic move,
+     * so a crash in the middle of a save never leaves a truncated file behind.
      *
      * @throws IOException If an I/O error occurs.
      */
     public void save() throws IOException {
-        this.loader.save(this.rootNode);
+        synchronized (this.saveLock) {
+            this.dirty.set(false);
+            this.write();
+        }
     }
 
     /**
-     * Gets a string value from the configuration.
+     * Saves this configuration to disk only if it was modified since it was last loaded or saved.
+     *
+     * @return True if the configuration was written, false if it was not dirty.
+     * @throws IOException If an I/O error occurs. The configuration stays dirty in that case.
+     */
+    public boolean saveIfDirty() throws IOException {
+        synchronized (this.saveLock) {
+            if (!this.dirty.compareAndSet(true, false)) {
+                return false;
+            }
+
+            this.write();
+            return true;
+        }
+    }
+
+    /**
+     * Writes the current snapshot atomically. The dirty flag is cleared by the caller before the snapshot is read,
+     * so a modification published during the write marks the configuration dirty again.
+     */
+    private void write() throws IOException {
+        final Path target = this.file.toPath();
+        final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try {
+            YamlConfigurationLoader.builder().file(temporary.toFile()).build().save(this.publishedRoot());
+
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException exception) {
+            this.dirty.set(true);
+            Files.deleteIfExists(temporary);
+            throw exception;
+        }
+    }
+
+    /**
+     * Publishes pending changes, waiting for a concurrent writer if necessary, so a save never misses a completed {@link #set(Object, Object...)}.
+     */
+    private @NonNull ConfigurationNode publishedRoot() {
+        this.writeLock.lock();
+        try {
+            this.publishPending();
+            return this.snapshot.get().getRoot();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks this configuration as modified, so the next flush writes it to disk.
+     */
+    public void markDirty() {
+        if (!this.dirty.getAndSet(true)) {
+            final Runnable listener = this.dirtyListener;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * Sets a listener called whenever this configuration is modified while it was not {@link #isDirty() dirty},
+     * on the thread modifying it. A failed save does not call it again.
+     *
+     * @param listener The listener, or {@code null} to remove it.
+     */
+    public void setDirtyListener(@Nullable Runnable listener) {
+        this.dirtyListener = listener;
+    }
+
+    /**
+     * @return If this configuration was modified in memory since it was last loaded or saved.
+     */
+    public boolean isDirty() {
+        return this.dirty.get();
+    }
+
+    /**
+     * Gets a string value from the current snapshot.
      *
      * @param path The path to the value.
      * @return The string value, or null if not found.
      */
     public @Nullable String getString(@NonNull Object... path) {
-        return this.rootNode.node(path).getString();
+        return this.getSnapshot().getString(path);
     }
 
     /**
@@ -96,17 +397,17 @@ public class ConfigurationProvider {
      * @return The string value, or default if not found.
      */
     public @NonNull String getString(@NonNull String defaultValue, @NonNull Object... path) {
-        return this.rootNode.node(path).getString(defaultValue);
+        return this.getSnapshot().getString(defaultValue, path);
     }
 
     /**
-     * Gets an integer value from the configuration.
+     * Gets an integer value from the current snapshot.
      *
      * @param path The path to the value.
      * @return The integer value, or 0 if not found.
      */
     public int getInt(@NonNull Object... path) {
-        return this.rootNode.node(path).getInt();
+        return this.getSnapshot().getInt(path);
     }
 
     /**
@@ -117,17 +418,17 @@ public class ConfigurationProvider {
      * @return The integer value, or default if not found.
      */
     public int getInt(int defaultValue, @NonNull Object... path) {
-        return this.rootNode.node(path).getInt(defaultValue);
+        return this.getSnapshot().getInt(defaultValue, path);
     }
 
     /**
-     * Gets a double value from the configuration.
+     * Gets a double value from the current snapshot.
      *
      * @param path The path to the value.
      * @return The double value, or 0.0 if not found.
      */
     public double getDouble(@NonNull Object... path) {
-        return this.rootNode.node(path).getDouble();
+        return this.getSnapshot().getDouble(path);
     }
 
     /**
@@ -138,17 +439,17 @@ public class ConfigurationProvider {
      * @return The double value, or default if not found.
      */
     public double getDouble(double defaultValue, @NonNull Object... path) {
-        return this.rootNode.node(path).getDouble(defaultValue);
+        return this.getSnapshot().getDouble(defaultValue, path);
     }
 
     /**
-     * Gets a boolean value from the configuration.
+     * Gets a boolean value from the current snapshot.
      *
      * @param path The path to the value.
      * @return The boolean value, or false if not found.
      */
     public boolean getBoolean(@NonNull Object... path) {
-        return this.rootNode.node(path).getBoolean();
+        return this.getSnapshot().getBoolean(path);
     }
 
     /**
@@ -159,17 +460,17 @@ public class ConfigurationProvider {
      * @return The boolean value, or default if not found.
      */
     public boolean getBoolean(boolean defaultValue, @NonNull Object... path) {
-        return this.rootNode.node(path).getBoolean(defaultValue);
+        return this.getSnapshot().getBoolean(defaultValue, path);
     }
 
     /**
-     * Gets a long value from the configuration.
+     * Gets a long value from the current snapshot.
      *
      * @param path The path to the value.
      * @return The long value, or 0L if not found.
      */
     public long getLong(@NonNull Object... path) {
-        return this.rootNode.node(path).getLong();
+        return this.getSnapshot().getLong(path);
     }
 
     /**
@@ -180,31 +481,31 @@ public class ConfigurationProvider {
      * @return The long value, or default if not found.
      */
     public long getLong(long defaultValue, @NonNull Object... path) {
-        return this.rootNode.node(path).getLong(defaultValue);
+        return this.getSnapshot().getLong(defaultValue, path);
     }
 
     /**
-     * Gets a list of strings from the configuration.
+     * Gets a list of strings from the current snapshot.
      *
      * @param path The path to the list.
      * @return The string list, or empty list if not found.
      */
     public @NonNull List<String> getStringList(@NonNull Object... path) throws SerializationException {
-        return this.rootNode.node(path).getList(String.class, List.of());
+        return this.getSnapshot().getStringList(path);
     }
 
     /**
-     * Gets a list of integers from the configuration.
+     * Gets a list of integers from the current snapshot.
      *
      * @param path The path to the list.
      * @return The integer list, or empty list if not found.
      */
     public @NonNull List<Integer> getIntList(@NonNull Object... path) throws SerializationException {
-        return this.rootNode.node(path).getList(Integer.class, List.of());
+        return this.getSnapshot().getIntList(path);
     }
 
     /**
-     * Gets a typed object from the configuration.
+     * Gets a typed object from the current snapshot.
      *
      * @param type The class type.
      * @param path The path to the value.
@@ -212,11 +513,7 @@ public class ConfigurationProvider {
      * @return The object, or null if not found.
      */
     public <T> @Nullable T get(@NonNull Class<T> type, @NonNull Object... path) {
-        try {
-            return this.rootNode.node(path).get(type);
-        } catch (Exception e) {
-            return null;
-        }
+        return this.getSnapshot().get(type, path);
     }
 
     /**
@@ -229,25 +526,44 @@ public class ConfigurationProvider {
      * @return The object, or default if not found.
      */
     public <T> @NonNull T get(@NonNull Class<T> type, @NonNull T defaultValue, @NonNull Object... path) {
-        try {
-            T value = this.rootNode.node(path).get(type);
-            return value != null ? value : defaultValue;
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        return this.getSnapshot().get(type, defaultValue, path);
     }
 
     /**
-     * Sets a value in the configuration.
+     * Sets a value in the configuration. The configuration is marked {@link #isDirty() dirty} until the next save.
+     * <p>
+     * The tree is copied once on the first call after a snapshot was published. Further calls modify the same copy,
+     * which is only published as a new snapshot once the configuration is read again, so a series of calls without reads
+     * in between copies the tree only once.
      *
      * @param value The value to set.
      * @param path The path to set at.
      */
     public void set(@Nullable Object value, @NonNull Object... path) {
+        this.writeLock.lock();
         try {
-            this.rootNode.node(path).set(value);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to set value at path: " + String.join(".", path.toString()), e);
+            ConfigurationNode root = this.pending;
+            if (root == null) {
+                root = this.snapshot.get().getRoot().copy();
+            }
+
+            try {
+                if (value == null) {
+                    root.node(path).set(null);
+                } else {
+                    // Serialized beforehand, so a value that cannot be serialized leaves the pending tree untouched
+                    final ConfigurationNode serialized = BasicConfigurationNode.root(root.options()).set(value);
+                    root.node(path).from(serialized);
+                }
+            } catch (SerializationException exception) {
+                throw new RuntimeException("Failed to modify the configuration with file id '" + this.fileId + "'", exception);
+            }
+
+            this.pending = root;
+            this.markDirty();
+            this.invalidateKeys();
+        } finally {
+            this.writeLock.unlock();
         }
     }
 
@@ -258,17 +574,21 @@ public class ConfigurationProvider {
      * @return True if exists, false otherwise.
      */
     public boolean exists(@NonNull Object... path) {
-        return !this.rootNode.node(path).virtual();
+        return this.getSnapshot().exists(path);
     }
 
     /**
-     * Gets a node at the specified path.
+     * Gets a node at the specified path of the current snapshot.
+     * <p>
+     * The node is shared with every reader of the snapshot and must not be modified. In-place changes are neither published
+     * nor saved, since they do not mark the configuration {@link #isDirty() dirty}. Use {@link #set(Object, Object...)} or
+     * {@link #update(Mutation)} instead.
      *
      * @param path The path to the node.
      * @return The configuration node.
      */
     public @NonNull ConfigurationNode getNode(@NonNull Object... path) {
-        return this.rootNode.node(path);
+        return this.getSnapshot().getNode(path);
     }
 
     /**
@@ -278,8 +598,7 @@ public class ConfigurationProvider {
      * @return Optional containing the node if it exists.
      */
     public @NonNull Optional<ConfigurationNode> getNodeOptional(@NonNull Object... path) {
-        ConfigurationNode node = this.rootNode.node(path);
-        return node.virtual() ? Optional.empty() : Optional.of(node);
+        return this.getSnapshot().getNodeOptional(path);
     }
 
     /**
@@ -310,11 +629,26 @@ public class ConfigurationProvider {
     }
 
     /**
-     * Gets the {@link ConfigurationNode root note} for this configuration.
+     * Gets the {@link ConfigurationNode root note} of the current snapshot.
+     * <p>
+     * The node is shared with every reader of the snapshot and must not be modified, see {@link #getNode(Object...)}.
      *
      * @return The configuration root node as a non-null {@link ConfigurationNode}.
      */
     public @NonNull ConfigurationNode getRootNode() {
-        return this.rootNode;
+        return this.getSnapshot().getRoot();
+    }
+
+    /**
+     * Modification applied to a copy of the configuration tree by {@link #update(Mutation)}.
+     */
+    @FunctionalInterface
+    public interface Mutation {
+
+        /**
+         * @param root The copied root node to modify.
+         * @throws SerializationException If a value could not be serialized.
+         */
+        void apply(@NonNull ConfigurationNode root) throws SerializationException;
     }
 }
\ No newline at end of file
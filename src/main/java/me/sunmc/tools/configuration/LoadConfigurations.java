@@ -25,4 +25,22 @@ public @interface LoadConfigurations {
      * If the file is not located in the root resources directory, also include the added path.
      */
     @NonNull String[] value();
+
+    /**
+     * @return If the parsed trees of these configurations should be kept in a binary cache in the data folder,
+     * so unchanged files are not parsed again on the next startup. The cache is invalidated automatically when a file changes.
+     */
+    boolean cacheParsed() default true;
+
+    /**
+     * @return File identifiers, out of {@link #value()}, whose trees should be kept in the {@link StorageMode#COMPACT compact}
+     * read-mostly representation. Use it for large configurations that are rarely modified, such as item catalogs.
+     */
+    @NonNull String[] compact() default {};
+
+    /**
+     * @return If modified configurations should be written to disk together with the world saves of the server,
+     * instead of at the fixed interval of the {@link me.sunmc.tools.configuration.save.WriteBehindFlusher write-behind flusher}.
+     */
+    boolean flushOnWorldSave() default false;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package me.sunmc.tools.configuration;
+
+import me.sunmc.tools.configuration.compact.CompactConfigTree;
+
+/**
+ * How a {@link ConfigurationProvider} keeps its tree in memory.
+ */
+public enum StorageMode {
+
+    /**
+     * Regular Configurate node tree. Best for small or frequently modified configurations.
+     */
+    NODE,
+
+    /**
+     * Flattened, interned {@link CompactConfigTree}. Greatly reduces the heap footprint of large, read-mostly
+     * configurations such as catalogs. Modifications and node based access rebuild regular trees and are more expensive.
+     */
+    COMPACT
+}
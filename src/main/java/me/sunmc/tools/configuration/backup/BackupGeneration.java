@@ -0,0 +1,14 @@
+package me.sunmc.tools.configuration.backup;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * One stored version of a configuration file in the {@link ConfigBackupStore}.
+ *
+ * @param configId   The configuration identifier.
+ * @param generation The generation number, incremented by one for every stored version of the configuration.
+ * @param createdAt  Time in milliseconds at which the version was stored.
+ * @param hash       Content hash of the stored file, which is also the key of its compressed object.
+ */
+public record BackupGeneration(@NonNull String configId, long generation, long createdAt, @NonNull String hash) {
+}
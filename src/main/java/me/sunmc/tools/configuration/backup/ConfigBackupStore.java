@@ -0,0 +1,289 @@
+package me.sunmc.tools.configuration.backup;
+
+import me.sunmc.tools.utils.java.JavaFileUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store of configuration backups.
+ * <p>
+ * Every stored version of a file is compressed with GZIP and saved once under its content hash in {@code objects/},
+ * so storing a file that did not change, or that has the same content as another backup, writes nothing but an index entry.
+ * The generations of all configurations are listed in a small index file, which makes retention and restoring
+ * independent of directory listings.
+ * <p>
+ * All file operations run in order on a single background thread, so backups never block the calling thread.
+ */
+public class ConfigBackupStore {
+
+    private static final @NonNull String INDEX_FILE = "index.tsv";
+    private static final @NonNull String INDEX_HEADER = "# suntools config backups v1";
+    private static final @NonNull String OBJECTS_DIRECTORY = "objects";
+    private static final @NonNull String OBJECT_EXTENSION = ".yml.gz";
+
+    private final @NonNull Logger logger;
+    private final @NonNull Path directory;
+    private final @NonNull ExecutorService executor;
+    private final @NonNull Map<String, List<BackupGeneration>> generations;
+    private final @NonNull CompletableFuture<Void> ready;
+    private volatile int maxGenerations = 5;
+
+    public ConfigBackupStore(@NonNull Logger logger, @NonNull Path directory) {
+        this.logger = logger;
+        this.directory = directory;
+        this.generations = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "suntools-config-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ready = CompletableFuture.runAsync(this::loadIndex, this.executor);
+    }
+
+    /**
+     * Stores the current content of a configuration file as a new generation, unless it equals the latest stored generation.
+     * The oldest generations beyond the retention limit are dropped.
+     *
+     * @param identifier The configuration identifier.
+     * @param file       The configuration file.
+     * @return Future completing with the generation holding the content of the file, or null if the file does not exist.
+     */
+    public @NonNull CompletableFuture<@Nullable BackupGeneration> backup(@NonNull String identifier, @NonNull Path file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.store(identifier, file);
+            } catch (IOException exception) {
+                throw new CompletionException(exception);
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Restores a stored generation into a file, replacing it atomically. The current content of the file is backed up first,
+     * so a restore can be undone by restoring the generation it created.
+     *
+     * @param identifier The configuration identifier.
+     * @param generation The generation number to restore.
+     * @param target     The file to restore the generation into.
+     * @return Future completing with the restored generation. Completes exceptionally with a {@link NoSuchElementException}
+     * if the generation is not stored.
+     */
+    public @NonNull CompletableFuture<BackupGeneration> restore(@NonNull String identifier, long generation, @NonNull Path target) {
+        return CompletableFuture.supplyAsync(() -> {
+            final BackupGeneration restored = this.generations.getOrDefault(identifier, List.of()).stream()
+                    .filter(stored -> stored.generation() == generation)
+                    .findFirst()
+                    .orElseThrow(() -> new NoSuchElementException("No backup generation " + generation + " of configuration: " + identifier));
+
+            try {
+                final byte[] content;
+                try (InputStream input = new GZIPInputStream(Files.newInputStream(this.objectPath(restored.hash())))) {
+                    content = input.readAllBytes();
+                }
+
+                this.store(identifier, target);
+                writeAtomically(target, content);
+                this.logger.info("Restored generation {} of configuration: {}", generation, identifier);
+                return restored;
+            } catch (IOException exception) {
+                throw new CompletionException(exception);
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Gets the stored generations of a configuration.
+     *
+     * @param identifier The configuration identifier.
+     * @return Unmodifiable list of the generations, oldest first.
+     */
+    public @NonNull List<BackupGeneration> getGenerations(@NonNull String identifier) {
+        this.ready.join();
+        return this.generations.getOrDefault(identifier, List.of());
+    }
+
+    /**
+     * Gets the latest stored generation of a configuration.
+     *
+     * @param identifier The configuration identifier.
+     * @return The latest generation wrapped in an {@link Optional}, empty if no backup of the configuration is stored.
+     */
+    public @NonNull Optional<BackupGeneration> getLatest(@NonNull String identifier) {
+        final List<BackupGeneration> stored = this.getGenerations(identifier);
+        return stored.isEmpty() ? Optional.empty() : Optional.of(stored.get(stored.size() - 1));
+    }
+
+    /**
+     * Sets how many generations are kept per configuration. Applied on the next backup of each configuration.
+     *
+     * @param maxGenerations The maximum number of generations.
+     */
+    public void setMaxGenerations(int maxGenerations) {
+        this.maxGenerations = Math.max(1, maxGenerations);
+    }
+
+    /**
+     * Finishes the pending backups and stops the background thread.
+     *
+     * @param timeout The maximum time to wait for pending backups.
+     * @param unit    The {@link TimeUnit} of the {@param timeout}.
+     */
+    public void close(long timeout, @NonNull TimeUnit unit) {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(timeout, unit)) {
+                this.logger.warn("Configuration backups did not finish within {}ms", unit.toMillis(timeout));
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private @Nullable BackupGeneration store(@NonNull String identifier, @NonNull Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        final byte[] content = Files.readAllBytes(file);
+        final String hash = JavaFileUtil.hashBytes(content);
+        final List<BackupGeneration> existing = this.generations.getOrDefault(identifier, List.of());
+        final BackupGeneration latest = existing.isEmpty() ? null : existing.get(existing.size() - 1);
+
+        if (latest != null && latest.hash().equals(hash)) {
+            return latest;
+        }
+
+        final Path object = this.objectPath(hash);
+        if (!Files.exists(object)) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 3 + 64);
+            try (OutputStream output = new GZIPOutputStream(compressed)) {
+                output.write(content);
+            }
+            writeAtomically(object, compressed.toByteArray());
+        }
+
+        final BackupGeneration created = new BackupGeneration(identifier,
+                latest == null ? 1 : latest.generation() + 1, System.currentTimeMillis(), hash);
+        final List<BackupGeneration> updated = new ArrayList<>(existing);
+        updated.add(created);
+
+        final int excess = Math.max(0, updated.size() - this.maxGenerations);
+        final List<BackupGeneration> dropped = new ArrayList<>(updated.subList(0, excess));
+        updated.subList(0, excess).clear();
+
+        this.generations.put(identifier, List.copyOf(updated));
+        this.writeIndex();
+        this.deleteUnreferenced(dropped);
+
+        this.logger.debug("Stored backup generation {} of configuration: {}", created.generation(), identifier);
+        return created;
+    }
+
+    /**
+     * Deletes the objects of dropped generations that are no longer referenced by any generation.
+     */
+    private void deleteUnreferenced(@NonNull List<BackupGeneration> dropped) {
+        if (dropped.isEmpty()) {
+            return;
+        }
+
+        final Set<String> referenced = new HashSet<>();
+        this.generations.values().forEach(list -> list.forEach(stored -> referenced.add(stored.hash())));
+
+        for (BackupGeneration generation : dropped) {
+            if (referenced.contains(generation.hash())) {
+                continue;
+            }
+
+            try {
+                Files.deleteIfExists(this.objectPath(generation.hash()));
+            } catch (IOException exception) {
+                this.logger.debug("Could not delete backup object: {}", generation.hash(), exception);
+            }
+        }
+    }
+
+    private void loadIndex() {
+        final Path index = this.directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(index)) {
+            return;
+        }
+
+        final Map<String, List<BackupGeneration>> loaded = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split("\t");
+                if (parts.length != 4) {
+                    continue;
+                }
+
+                try {
+                    BackupGeneration generation = new BackupGeneration(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]);
+                    if (Files.exists(this.objectPath(generation.hash()))) {
+                        loaded.computeIfAbsent(generation.configId(), id -> new ArrayList<>()).add(generation);
+                    }
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        } catch (IOException exception) {
+            this.logger.warn("Could not read configuration backup index, starting with an empty one", exception);
+            return;
+        }
+
+        loaded.forEach((identifier, list) -> {
+            list.sort(Comparator.comparingLong(BackupGeneration::generation));
+            this.generations.put(identifier, List.copyOf(list));
+        });
+    }
+
+    private void writeIndex() throws IOException {
+        final StringBuilder builder = new StringBuilder(INDEX_HEADER).append('\n');
+        for (List<BackupGeneration> list : this.generations.values()) {
+            for (BackupGeneration generation : list) {
+                builder.append(generation.configId()).append('\t')
+                        .append(generation.generation()).append('\t')
+                        .append(generation.createdAt()).append('\t')
+                        .append(generation.hash()).append('\n');
+            }
+        }
+        writeAtomically(this.directory.resolve(INDEX_FILE), builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private @NonNull Path objectPath(@NonNull String hash) {
+        return this.directory.resolve(OBJECTS_DIRECTORY).resolve(hash + OBJECT_EXTENSION);
+    }
+
+    private static void writeAtomically(@NonNull Path target, byte @NonNull [] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package me.sunmc.tools.configuration.cache;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.spongepowered.configurate.CommentedConfigurationNode;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of parsed configuration trees in a compact binary encoding, used to skip YAML parsing on startup.
+ * <p>
+ * Every entry is keyed by the size, modification time and content hash of its source file, and is ignored as soon as
+ * any of them differs, so the cache never has to be invalidated manually. Entries that cannot be read are deleted
+ * and rebuilt from the YAML file.
+ * <p>
+ * Only trees consisting of sections, lists, strings, numbers and booleans are cached. Files containing other
+ * scalar types, such as YAML timestamps, are always parsed.
+ */
+public class ParsedConfigCache {
+
+    private static final int MAGIC = 0x53544343; // "STCC"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_MAP = 7;
+    private static final byte TAG_LIST = 8;
+    // Far deeper than any configuration, but low enough for a corrupt entry not to overflow the stack
+    private static final int MAX_DEPTH = 512;
+
+    private final @NonNull Logger logger;
+    private final @NonNull Path directory;
+
+    public ParsedConfigCache(@NonNull Logger logger, @NonNull Path directory) {
+        this.logger = logger;
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the cached tree of a configuration if it is still valid for the source file.
+     *
+     * @param identifier The configuration identifier.
+     * @param source     The YAML source file.
+     * @param hash       The current content hash of the source file, or null if it is unknown.
+     * @param options    Options of the created nodes.
+     * @return The cached tree, or null if there is no valid entry.
+     */
+    public @Nullable ConfigurationNode read(@NonNull String identifier, @NonNull File source, @Nullable String hash,
+                                            @NonNull ConfigurationOptions options) {
+        final Path entry = this.entryPath(identifier);
+        if (hash == null || !Files.isRegularFile(entry)) {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(entry)))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION
+                    || input.readLong() != source.length()
+                    || input.readLong() != source.lastModified()
+                    || !hash.equals(readString(input))) {
+                return null;
+            }
+
+            final CommentedConfigurationNode root = CommentedConfigurationNode.root(options);
+            readNode(input, root, 0);
+            return root;
+        } catch (IOException | RuntimeException exception) {
+            this.logger.debug("Discarding unreadable parsed cache of configuration: {}", identifier, exception);
+            this.invalidate(identifier);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the parsed tree of a configuration to the cache, replacing the previous entry atomically.
+     *
+     * @param identifier The configuration identifier.
+     * @param source     The YAML source file the tree was parsed from.
+     * @param hash       The content hash of the source file, or null if it is unknown.
+     * @param root       The parsed root node.
+     * @return True if the entry was written, false if the tree is not cacheable or could not be written.
+     */
+    public boolean write(@NonNull String identifier, @NonNull File source, @Nullable String hash,
+                         @NonNull ConfigurationNode root) {
+        if (hash == null) {
+            return false;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(source.length());
+            output.writeLong(source.lastModified());
+            writeString(output, hash);
+
+            if (!writeNode(output, root)) {
+                this.invalidate(identifier);
+                return false;
+            }
+        } catch (IOException exception) {
+            return false;
+        }
+
+        final Path entry = this.entryPath(identifier);
+        try {
+            Files.createDirectories(entry.getParent());
+            Path temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException exception) {
+            this.logger.debug("Could not write parsed cache of configuration: {}", identifier, exception);
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the cached entry of a configuration.
+     *
+     * @param identifier The configuration identifier.
+     */
+    public void invalidate(@NonNull String identifier) {
+        try {
+            Files.deleteIfExists(this.entryPath(identifier));
+        } catch (IOException exception) {
+            this.logger.debug("Could not delete parsed cache of configuration: {}", identifier, exception);
+        }
+    }
+
+    /**
+     * @return The directory holding the cache entries.
+     */
+    public @NonNull Path getDirectory() {
+        return this.directory;
+    }
+
+    private @NonNull Path entryPath(@NonNull String identifier) {
+        return this.directory.resolve(identifier + ".bin");
+    }
+
+    private static boolean writeNode(@NonNull DataOutputStream output, @NonNull ConfigurationNode node) throws IOException {
+        if (node.isMap()) {
+            final Map<Object, ? extends ConfigurationNode> children = node.childrenMap();
+            output.writeByte(TAG_MAP);
+            output.writeInt(children.size());
+
+            for (Map.Entry<Object, ? extends ConfigurationNode> child : children.entrySet()) {
+                if (!writeScalar(output, child.getKey()) || !writeNode(output, child.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (node.isList()) {
+            final List<? extends ConfigurationNode> children = node.childrenList();
+            output.writeByte(TAG_LIST);
+            output.writeInt(children.size());
+
+            for (ConfigurationNode child : children) {
+                if (!writeNode(output, child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return writeScalar(output, node.rawScalar());
+    }
+
+    private static boolean writeScalar(@NonNull DataOutputStream output, @Nullable Object value) throws IOException {
+        switch (value) {
+            case null -> output.writeByte(TAG_NULL);
+            case String string -> {
+                output.writeByte(TAG_STRING);
+                writeString(output, string);
+            }
+            case Integer integer -> {
+                output.writeByte(TAG_INT);
+                output.writeInt(integer);
+            }
+            case Long longValue -> {
+                output.writeByte(TAG_LONG);
+                output.writeLong(longValue);
+            }
+            case Double doubleValue -> {
+                output.writeByte(TAG_DOUBLE);
+                output.writeDouble(doubleValue);
+            }
+            case Float floatValue -> {
+                output.writeByte(TAG_FLOAT);
+                output.writeFloat(floatValue);
+            }
+            case Boolean bool -> {
+                output.writeByte(TAG_BOOLEAN);
+                output.writeBoolean(bool);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readNode(@NonNull DataInputStream input, @NonNull ConfigurationNode node, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Nesting deeper than " + MAX_DEPTH);
+        }
+        final byte tag = input.readByte();
+
+        switch (tag) {
+            case TAG_MAP -> {
+                final int size = readLength(input);
+                node.raw(Collections.emptyMap());
+                for (int i = 0; i < size; i++) {
+                    Object key = readScalar(input, input.readByte());
+                    readNode(input, node.node(key), depth + 1);
+                }
+            }
+            case TAG_LIST -> {
+                final int size = readLength(input);
+                node.raw(Collections.emptyList());
+                for (int i = 0; i < size; i++) {
+                    readNode(input, node.appendListNode(), depth + 1);
+                }
+            }
+            default -> node.raw(readScalar(input, tag));
+        }
+    }
+
+    private static @Nullable Object readScalar(@NonNull DataInputStream input, byte tag) throws IOException {
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_STRING -> readString(input);
+            case TAG_INT -> input.readInt();
+            case TAG_LONG -> input.readLong();
+            case TAG_DOUBLE -> input.readDouble();
+            case TAG_FLOAT -> input.readFloat();
+            case TAG_BOOLEAN -> input.readBoolean();
+            default -> throw new IOException("Unknown tag " + tag);
+        };
+    }
+
+    private static void writeString(@NonNull DataOutputStream output, @NonNull String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static @NonNull String readString(@NonNull DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[readLength(input)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the length of a string or the size of a section. Every byte or element takes at least one byte, so a length
+     * beyond the rest of the entry means it is corrupt, and is rejected before anything is allocated for it.
+     */
+    private static int readLength(@NonNull DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0 || length > input.available()) {
+            throw new IOException("Invalid length " + length + " with " + input.available() + " bytes left");
+        }
+        return length;
+    }
+}
@@ -0,0 +1,74 @@
+package me.sunmc.tools.configuration.change;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A single changed path between two versions of a configuration.
+ * <p>
+ * The nodes belong to the configuration snapshots and must not be modified. A path that did not exist
+ * in one of the versions is represented by a {@link ConfigurationNode#virtual() virtual} node.
+ *
+ * @param path     Keys leading from the root to the changed node.
+ * @param oldValue Node at the path before the change.
+ * @param newValue Node at the path after the change.
+ */
+public record ConfigChange(@NonNull List<Object> path,
+                           @NonNull ConfigurationNode oldValue,
+                           @NonNull ConfigurationNode newValue) {
+
+    /**
+     * @return If the path did not exist before the change.
+     */
+    public boolean isAdded() {
+        return this.oldValue.virtual() || this.oldValue.raw() == null;
+    }
+
+    /**
+     * @return If the path no longer exists after the change.
+     */
+    public boolean isRemoved() {
+        return this.newValue.virtual() || this.newValue.raw() == null;
+    }
+
+    /**
+     * Deserializes the value before the change.
+     *
+     * @param type The class type.
+     * @param <T>  The type parameter.
+     * @return The old value, or null if it did not exist or could not be deserialized.
+     */
+    public <T> @Nullable T getOldValue(@NonNull Class<T> type) {
+        try {
+            return this.oldValue.get(type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deserializes the value after the change.
+     *
+     * @param type The class type.
+     * @param <T>  The type parameter.
+     * @return The new value, or null if it no longer exists or could not be deserialized.
+     */
+    public <T> @Nullable T getNewValue(@NonNull Class<T> type) {
+        try {
+            return this.newValue.get(type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The path joined with dots, for logging.
+     */
+    public @NonNull String formatPath() {
+        return this.path.stream().map(String::valueOf).collect(Collectors.joining("."));
+    }
+}
@@ -0,0 +1,17 @@
+package me.sunmc.tools.configuration.change;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Listener notified when the subscribed path of a configuration changed on reload.
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    /**
+     * Called on the thread that applied the reload, which is the main thread for reloads triggered by the file watcher.
+     *
+     * @param change The change scoped to the subscribed path, holding the old and new node at that path.
+     */
+    void onChange(@NonNull ConfigChange change);
+}
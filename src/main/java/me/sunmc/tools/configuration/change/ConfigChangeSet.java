@@ -0,0 +1,40 @@
+package me.sunmc.tools.configuration.change;
+
+import me.sunmc.tools.configuration.ConfigSnapshot;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+
+/**
+ * All changes applied to a configuration by one reload.
+ *
+ * @param configId Identifier of the reloaded configuration.
+ * @param previous Snapshot before the reload.
+ * @param current  Snapshot published by the reload.
+ * @param changes  Changed paths in tree order.
+ */
+public record ConfigChangeSet(@NonNull String configId,
+                              @NonNull ConfigSnapshot previous,
+                              @NonNull ConfigSnapshot current,
+                              @NonNull List<ConfigChange> changes) {
+
+    public ConfigChangeSet {
+        changes = List.copyOf(changes);
+    }
+
+    /**
+     * @return If the reload did not change any value.
+     */
+    public boolean isEmpty() {
+        return this.changes.isEmpty();
+    }
+
+    /**
+     * @param path The path to check.
+     * @return If the value at the path, or anything below or above it, changed.
+     */
+    public boolean hasChanged(@NonNull Object... path) {
+        final List<Object> target = List.of(path);
+        return this.changes.stream().anyMatch(change -> ConfigDiff.affects(target, change.path()));
+    }
+}
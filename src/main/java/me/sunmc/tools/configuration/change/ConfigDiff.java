@@ -0,0 +1,65 @@
+package me.sunmc.tools.configuration.change;
+
+import lombok.experimental.UtilityClass;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.spongepowered.configurate.ConfigurationNode;
+
+import java.util.*;
+
+/**
+ * Computes the structural difference between two configuration trees.
+ */
+@UtilityClass
+public class ConfigDiff {
+
+    /**
+     * Compares two trees and collects the deepest paths whose values differ.
+     * <p>
+     * Sections present in both trees are compared key by key. Any other node, including lists, is compared by its raw value.
+     * Keys added or removed in a section are reported as a single change at the key.
+     *
+     * @param oldRoot Root node of the previous version.
+     * @param newRoot Root node of the new version.
+     * @return List of changes in tree order, empty if both trees are equal.
+     */
+    public static @NonNull List<ConfigChange> diff(@NonNull ConfigurationNode oldRoot, @NonNull ConfigurationNode newRoot) {
+        final List<ConfigChange> changes = new ArrayList<>();
+        diff(new ArrayList<>(), oldRoot, newRoot, changes);
+        return changes;
+    }
+
+    private static void diff(@NonNull List<Object> path, @NonNull ConfigurationNode oldNode,
+                             @NonNull ConfigurationNode newNode, @NonNull List<ConfigChange> changes) {
+        if (oldNode.isMap() && newNode.isMap()) {
+            final Set<Object> keys = new LinkedHashSet<>(oldNode.childrenMap().keySet());
+            keys.addAll(newNode.childrenMap().keySet());
+
+            for (Object key : keys) {
+                path.add(key);
+                diff(path, oldNode.node(key), newNode.node(key), changes);
+                path.removeLast();
+            }
+            return;
+        }
+
+        if (!Objects.equals(oldNode.raw(), newNode.raw())) {
+            changes.add(new ConfigChange(List.copyOf(path), oldNode, newNode));
+        }
+    }
+
+    /**
+     * @param path   Path of a subscription.
+     * @param change Path of a change.
+     * @return If a change at the second path affects a subscription to the first path, which is the case if either
+     * path is a prefix of the other.
+     */
+    public static boolean affects(@NonNull List<Object> path, @NonNull List<Object> change) {
+        final int common = Math.min(path.size(), change.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(path.get(i), change.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package me.sunmc.tools.configuration.change;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+
+/**
+ * Handle of a path-scoped subscription created through {@link ConfigSubscriptionRegistry#subscribe(String, ConfigChangeListener, Object...)}.
+ */
+public final class ConfigSubscription {
+
+    private final @NonNull ConfigSubscriptionRegistry registry;
+    private final @NonNull String configId;
+    private final @NonNull List<Object> path;
+    private final @NonNull ConfigChangeListener listener;
+
+    ConfigSubscription(@NonNull ConfigSubscriptionRegistry registry, @NonNull String configId,
+                       @NonNull List<Object> path, @NonNull ConfigChangeListener listener) {
+        this.registry = registry;
+        this.configId = configId;
+        this.path = path;
+        this.listener = listener;
+    }
+
+    /**
+     * Stops notifying the listener of this subscription.
+     */
+    public void unsubscribe() {
+        this.registry.remove(this);
+    }
+
+    /**
+     * @return Identifier of the subscribed configuration.
+     */
+    public @NonNull String getConfigId() {
+        return this.configId;
+    }
+
+    /**
+     * @return The subscribed path, empty if the whole configuration is subscribed.
+     */
+    public @NonNull List<Object> getPath() {
+        return this.path;
+    }
+
+    @NonNull ConfigChangeListener getListener() {
+        return this.listener;
+    }
+}
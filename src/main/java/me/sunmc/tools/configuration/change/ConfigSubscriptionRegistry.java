@@ -0,0 +1,90 @@
+package me.sunmc.tools.configuration.change;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of path-scoped configuration subscriptions.
+ * <p>
+ * After a reload, only the subscribers whose path was affected by the structural diff between the old and new tree
+ * are notified, with the old and new node at their path.
+ */
+public class ConfigSubscriptionRegistry {
+
+    private final @NonNull Logger logger;
+    private final @NonNull Map<String, List<ConfigSubscription>> subscriptions;
+
+    public ConfigSubscriptionRegistry(@NonNull Logger logger) {
+        this.logger = logger;
+        this.subscriptions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Subscribes a listener to changes of a path in a configuration.
+     *
+     * @param configId The configuration identifier.
+     * @param listener The listener to notify.
+     * @param path     The path to watch. If empty, any change of the configuration is reported with the root nodes.
+     * @return Handle of the subscription, which can be used to unsubscribe.
+     */
+    public @NonNull ConfigSubscription subscribe(@NonNull String configId, @NonNull ConfigChangeListener listener,
+                                                 @NonNull Object... path) {
+        final ConfigSubscription subscription = new ConfigSubscription(this, configId, List.of(path), listener);
+        this.subscriptions.computeIfAbsent(configId, id -> new CopyOnWriteArrayList<>()).add(subscription);
+        return subscription;
+    }
+
+    void remove(@NonNull ConfigSubscription subscription) {
+        final List<ConfigSubscription> list = this.subscriptions.get(subscription.getConfigId());
+        if (list != null) {
+            list.remove(subscription);
+        }
+    }
+
+    /**
+     * Notifies every subscriber of the reloaded configuration whose path was affected by the changes.
+     *
+     * @param changeSet The changes applied by a reload.
+     * @return The number of notified subscribers.
+     */
+    public int dispatch(@NonNull ConfigChangeSet changeSet) {
+        final List<ConfigSubscription> list = this.subscriptions.get(changeSet.configId());
+        if (list == null || list.isEmpty() || changeSet.isEmpty()) {
+            return 0;
+        }
+
+        int notified = 0;
+        for (ConfigSubscription subscription : list) {
+            final List<Object> path = subscription.getPath();
+            if (changeSet.changes().stream().noneMatch(change -> ConfigDiff.affects(path, change.path()))) {
+                continue;
+            }
+
+            final Object[] keys = path.toArray();
+            final ConfigChange scoped = new ConfigChange(path,
+                    changeSet.previous().getNode(keys),
+                    changeSet.current().getNode(keys));
+
+            try {
+                subscription.getListener().onChange(scoped);
+                notified++;
+            } catch (Exception exception) {
+                this.logger.error("Config subscriber of '{}' at '{}' failed", changeSet.configId(), scoped.formatPath(), exception);
+            }
+        }
+        return notified;
+    }
+
+    /**
+     * @param configId The configuration identifier.
+     * @return The number of subscriptions of the configuration.
+     */
+    public int getSubscriptionCount(@NonNull String configId) {
+        final List<ConfigSubscription> list = this.subscriptions.get(configId);
+        return list == null ? 0 : list.size();
+    }
+}
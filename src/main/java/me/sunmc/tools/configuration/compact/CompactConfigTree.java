@@ -0,0 +1,479 @@
+package me.sunmc.tools.configuration.compact;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.CommentedConfigurationNode;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+
+import java.util.*;
+
+/**
+ * Read-only, flattened representation of a configuration tree with a much smaller heap footprint than
+ * Configurate {@link ConfigurationNode} trees.
+ * <p>
+ * Nodes are numbered in breadth-first order, so the children of a section or list occupy a contiguous range of ids.
+ * Every node takes one entry in a few parallel arrays: its kind, a packed primitive value and its key. Scalars are stored
+ * unboxed, sections and lists pack the range of their children into the value, and keys and string values are interned
+ * per tree. Section children are additionally indexed by key for binary search lookups.
+ * <p>
+ * Lookups follow the conversion rules of the regular getters closely, numbers and booleans can be read from strings
+ * and vice versa. Anything else, such as {@link #materialize(Object...)}, rebuilds a regular node tree on demand.
+ */
+public final class CompactConfigTree {
+
+    private static final byte KIND_NULL = 0;
+    private static final byte KIND_STRING = 1;
+    private static final byte KIND_LONG = 2;
+    private static final byte KIND_INT = 3;
+    private static final byte KIND_DOUBLE = 4;
+    private static final byte KIND_FLOAT = 5;
+    private static final byte KIND_BOOLEAN = 6;
+    private static final byte KIND_OBJECT = 7;
+    private static final byte KIND_MAP = 8;
+    private static final byte KIND_LIST = 9;
+
+    private final @NonNull ConfigurationOptions options;
+    private final byte @NonNull [] kinds;
+    private final long @NonNull [] values;
+    private final @Nullable Object @NonNull [] keys;
+    private final int @NonNull [] sortedChildren;
+    private final @NonNull String @NonNull [] strings;
+    private final @NonNull Object @NonNull [] objects;
+
+    private CompactConfigTree(@NonNull ConfigurationOptions options, byte @NonNull [] kinds, long @NonNull [] values,
+                              @Nullable Object @NonNull [] keys, int @NonNull [] sortedChildren,
+                              @NonNull String @NonNull [] strings, @NonNull Object @NonNull [] objects) {
+        this.options = options;
+        this.kinds = kinds;
+        this.values = values;
+        this.keys = keys;
+        this.sortedChildren = sortedChildren;
+        this.strings = strings;
+        this.objects = objects;
+    }
+
+    /**
+     * Flattens a configuration tree. The provided tree is not referenced afterward.
+     *
+     * @param root The root node to flatten.
+     * @return The compact tree.
+     */
+    public static @NonNull CompactConfigTree of(@NonNull ConfigurationNode root) {
+        final List<ConfigurationNode> nodes = new ArrayList<>();
+        final List<Object> nodeKeys = new ArrayList<>();
+        final Map<String, String> interned = new HashMap<>();
+        final Map<String, Integer> stringIndexes = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final List<Object> objects = new ArrayList<>();
+
+        nodes.add(root);
+        nodeKeys.add(null);
+
+        // Breadth-first numbering, children of one node get consecutive ids
+        final List<long[]> ranges = new ArrayList<>();
+        for (int id = 0; id < nodes.size(); id++) {
+            ConfigurationNode node = nodes.get(id);
+            int start = nodes.size();
+
+            if (node.isMap()) {
+                for (Map.Entry<Object, ? extends ConfigurationNode> child : node.childrenMap().entrySet()) {
+                    nodes.add(child.getValue());
+                    Object key = child.getKey();
+                    nodeKeys.add(key instanceof String string ? interned.computeIfAbsent(string, s -> s) : key);
+                }
+            } else if (node.isList()) {
+                for (ConfigurationNode child : node.childrenList()) {
+                    nodes.add(child);
+                    nodeKeys.add(null);
+                }
+            }
+            ranges.add(new long[]{start, nodes.size() - start});
+        }
+
+        final int size = nodes.size();
+        final byte[] kinds = new byte[size];
+        final long[] values = new long[size];
+        final int[] sortedChildren = new int[size];
+
+        for (int id = 0; id < size; id++) {
+            ConfigurationNode node = nodes.get(id);
+            int start = (int) ranges.get(id)[0];
+            int count = (int) ranges.get(id)[1];
+
+            if (node.isMap()) {
+                kinds[id] = KIND_MAP;
+                values[id] = pack(start, count);
+
+                Integer[] order = new Integer[count];
+                for (int i = 0; i < count; i++) {
+                    order[i] = start + i;
+                }
+                Arrays.sort(order, Comparator.comparing(child -> String.valueOf(nodeKeys.get(child))));
+                for (int i = 0; i < count; i++) {
+                    sortedChildren[start + i] = order[i];
+                }
+                continue;
+            }
+
+            if (node.isList()) {
+                kinds[id] = KIND_LIST;
+                values[id] = pack(start, count);
+                continue;
+            }
+
+            Object value = node.rawScalar();
+            switch (value) {
+                case null -> kinds[id] = KIND_NULL;
+                case String string -> {
+                    kinds[id] = KIND_STRING;
+                    values[id] = stringIndexes.computeIfAbsent(string, s -> {
+                        strings.add(interned.computeIfAbsent(s, k -> k));
+                        return strings.size() - 1;
+                    });
+                }
+                case Integer integer -> {
+                    kinds[id] = KIND_INT;
+                    values[id] = integer;
+                }
+                case Long longValue -> {
+                    kinds[id] = KIND_LONG;
+                    values[id] = longValue;
+                }
+                case Double doubleValue -> {
+                    kinds[id] = KIND_DOUBLE;
+                    values[id] = Double.doubleToRawLongBits(doubleValue);
+                }
+                case Float floatValue -> {
+                    kinds[id] = KIND_FLOAT;
+                    values[id] = Double.doubleToRawLongBits(floatValue);
+                }
+                case Boolean bool -> {
+                    kinds[id] = KIND_BOOLEAN;
+                    values[id] = bool ? 1 : 0;
+                }
+                default -> {
+                    kinds[id] = KIND_OBJECT;
+                    values[id] = objects.size();
+                    objects.add(value);
+                }
+            }
+        }
+
+        return new CompactConfigTree(root.options(), kinds, values, nodeKeys.toArray(),
+                sortedChildren, strings.toArray(String[]::new), objects.toArray());
+    }
+
+    private static long pack(int start, int count) {
+        return ((long) start << 32) | (count & 0xFFFFFFFFL);
+    }
+
+    private int childStart(int id) {
+        return (int) (this.values[id] >>> 32);
+    }
+
+    private int childCount(int id) {
+        return (int) this.values[id];
+    }
+
+    /**
+     * Finds the id of the node at the provided path.
+     *
+     * @param path The path to the node.
+     * @return The node id, or {@code -1} if there is no node at the path.
+     */
+    private int find(@NonNull Object @NonNull [] path) {
+        int id = 0;
+        for (Object element : path) {
+            byte kind = this.kinds[id];
+
+            if (kind == KIND_MAP) {
+                id = this.findChild(id, String.valueOf(element));
+            } else if (kind == KIND_LIST && element instanceof Number number) {
+                int index = number.intValue();
+                id = index >= 0 && index < this.childCount(id) ? this.childStart(id) + index : -1;
+            } else {
+                return -1;
+            }
+
+            if (id == -1) {
+                return -1;
+            }
+        }
+        return id;
+    }
+
+    private int findChild(int id, @NonNull String key) {
+        int low = this.childStart(id);
+        int high = low + this.childCount(id) - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int child = this.sortedChildren[middle];
+            int comparison = String.valueOf(this.keys[child]).compareTo(key);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param path The path to check.
+     * @return If a non-null value or section exists at the path.
+     */
+    public boolean exists(@NonNull Object... path) {
+        int id = this.find(path);
+        return id != -1 && this.kinds[id] != KIND_NULL;
+    }
+
+    /**
+     * @param defaultValue The value returned if the path is missing or not a scalar.
+     * @param path         The path to the value.
+     * @return The value as a string.
+     */
+    public @Nullable String getString(@Nullable String defaultValue, @NonNull Object... path) {
+        int id = this.find(path);
+        return id == -1 ? defaultValue : this.stringOf(id, defaultValue);
+    }
+
+    private @Nullable String stringOf(int id, @Nullable String defaultValue) {
+        return switch (this.kinds[id]) {
+            case KIND_STRING -> this.strings[(int) this.values[id]];
+            case KIND_INT, KIND_LONG -> String.valueOf(this.values[id]);
+            case KIND_DOUBLE, KIND_FLOAT -> String.valueOf(Double.longBitsToDouble(this.values[id]));
+            case KIND_BOOLEAN -> String.valueOf(this.values[id] != 0);
+            case KIND_OBJECT -> String.valueOf(this.objects[(int) this.values[id]]);
+            default -> defaultValue;
+        };
+    }
+
+    /**
+     * @param defaultValue The value returned if the path is missing or not a whole number.
+     * @param path         The path to the value.
+     * @return The value as a long.
+     */
+    public long getLong(long defaultValue, @NonNull Object... path) {
+        int id = this.find(path);
+        return id == -1 ? defaultValue : this.longOf(id, defaultValue);
+    }
+
+    private long longOf(int id, long defaultValue) {
+        switch (this.kinds[id]) {
+            case KIND_INT, KIND_LONG -> {
+                return this.values[id];
+            }
+            case KIND_DOUBLE, KIND_FLOAT -> {
+                double value = Double.longBitsToDouble(this.values[id]);
+                return value == Math.rint(value) ? (long) value : defaultValue;
+            }
+            case KIND_STRING -> {
+                try {
+                    return Long.parseLong(this.strings[(int) this.values[id]].trim());
+                } catch (NumberFormatException exception) {
+                    return defaultValue;
+                }
+            }
+            default -> {
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * @param defaultValue The value returned if the path is missing or not a whole number within the integer range.
+     * @param path         The path to the value.
+     * @return The value as an integer.
+     */
+    public int getInt(int defaultValue, @NonNull Object... path) {
+        long value = this.getLong(Long.MIN_VALUE, path);
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE && value != Long.MIN_VALUE ? (int) value : defaultValue;
+    }
+
+    /**
+     * @param defaultValue The value returned if the path is missing or not a number.
+     * @param path         The path to the value.
+     * @return The value as a double.
+     */
+    public double getDouble(double defaultValue, @NonNull Object... path) {
+        int id = this.find(path);
+        if (id == -1) {
+            return defaultValue;
+        }
+
+        switch (this.kinds[id]) {
+            case KIND_INT, KIND_LONG -> {
+                return this.values[id];
+            }
+            case KIND_DOUBLE, KIND_FLOAT -> {
+                return Double.longBitsToDouble(this.values[id]);
+            }
+            case KIND_STRING -> {
+                try {
+                    return Double.parseDouble(this.strings[(int) this.values[id]].trim());
+                } catch (NumberFormatException exception) {
+                    return defaultValue;
+                }
+            }
+            default -> {
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * @param defaultValue The value returned if the path is missing or not a boolean.
+     * @param path         The path to the value.
+     * @return The value as a boolean.
+     */
+    public boolean getBoolean(boolean defaultValue, @NonNull Object... path) {
+        int id = this.find(path);
+        if (id == -1) {
+            return defaultValue;
+        }
+
+        return switch (this.kinds[id]) {
+            case KIND_BOOLEAN -> this.values[id] != 0;
+            case KIND_STRING -> switch (this.strings[(int) this.values[id]].trim().toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "on", "t", "y", "1" -> true;
+                case "false", "no", "off", "f", "n", "0" -> false;
+                default -> defaultValue;
+            };
+            case KIND_INT, KIND_LONG -> this.values[id] != 0;
+            default -> defaultValue;
+        };
+    }
+
+    /**
+     * @param path The path to the list.
+     * @return The string forms of the scalar elements of the list, or an empty list if there is no list at the path.
+     */
+    public @NonNull List<String> getStringList(@NonNull Object... path) {
+        int id = this.find(path);
+        if (id == -1 || this.kinds[id] != KIND_LIST) {
+            return List.of();
+        }
+
+        final int start = this.childStart(id);
+        final List<String> list = new ArrayList<>(this.childCount(id));
+
+        for (int child = start; child < start + this.childCount(id); child++) {
+            String value = this.stringOf(child, null);
+            if (value != null) {
+                list.add(value);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @param path The path to the list.
+     * @return The whole number elements of the list, or an empty list if there is no list at the path.
+     */
+    public @NonNull List<Integer> getIntList(@NonNull Object... path) {
+        int id = this.find(path);
+        if (id == -1 || this.kinds[id] != KIND_LIST) {
+            return List.of();
+        }
+
+        final int start = this.childStart(id);
+        final List<Integer> list = new ArrayList<>(this.childCount(id));
+
+        for (int child = start; child < start + this.childCount(id); child++) {
+            long value = this.longOf(child, Long.MIN_VALUE);
+            if (value != Long.MIN_VALUE) {
+                list.add((int) value);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Rebuilds a regular node tree of the subtree at the path. The returned node is detached from this tree,
+     * so modifications are not reflected.
+     *
+     * @param path The path to the subtree.
+     * @return The rebuilt node, or a virtual node if there is no node at the path.
+     */
+    public @NonNull ConfigurationNode materialize(@NonNull Object... path) {
+        final CommentedConfigurationNode root = CommentedConfigurationNode.root(this.options);
+        final int id = this.find(path);
+        if (id == -1) {
+            return root.node(path);
+        }
+
+        final ConfigurationNode target = root.node(path);
+        this.materialize(id, target);
+        return target;
+    }
+
+    private void materialize(int id, @NonNull ConfigurationNode target) {
+        final long value = this.values[id];
+
+        switch (this.kinds[id]) {
+            case KIND_MAP -> {
+                target.raw(Collections.emptyMap());
+                int start = this.childStart(id);
+                for (int child = start; child < start + this.childCount(id); child++) {
+                    this.materialize(child, target.node(this.keys[child]));
+                }
+            }
+            case KIND_LIST -> {
+                target.raw(Collections.emptyList());
+                int start = this.childStart(id);
+                for (int child = start; child < start + this.childCount(id); child++) {
+                    this.materialize(child, target.appendListNode());
+                }
+            }
+            case KIND_STRING -> target.raw(this.strings[(int) value]);
+            case KIND_INT -> target.raw((int) value);
+            case KIND_LONG -> target.raw(value);
+            case KIND_DOUBLE -> target.raw(Double.longBitsToDouble(value));
+            case KIND_FLOAT -> target.raw((float) Double.longBitsToDouble(value));
+            case KIND_BOOLEAN -> target.raw(value != 0);
+            case KIND_OBJECT -> target.raw(this.objects[(int) value]);
+            default -> target.raw(null);
+        }
+    }
+
+    /**
+     * @return The number of nodes in this tree.
+     */
+    public int getNodeCount() {
+        return this.kinds.length;
+    }
+
+    /**
+     * Estimates the retained heap size of this tree, assuming compressed references.
+     * Interned strings are counted once, objects of unsupported scalar types are not counted.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long estimateSize() {
+        long size = 16L * 7 // object header and array headers
+                + this.kinds.length
+                + 8L * this.values.length
+                + 4L * this.keys.length
+                + 4L * this.sortedChildren.length
+                + 4L * this.strings.length
+                + 4L * this.objects.length;
+
+        final Set<Object> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String string : this.strings) {
+            if (counted.add(string)) {
+                size += 40 + string.length();
+            }
+        }
+        for (Object key : this.keys) {
+            if (key instanceof String string && counted.add(string)) {
+                size += 40 + string.length();
+            }
+        }
+        return size;
+    }
+}
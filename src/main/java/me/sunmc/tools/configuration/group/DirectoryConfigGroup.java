@@ -0,0 +1,403 @@
+package me.sunmc.tools.configuration.group;
+
+import me.sunmc.tools.configuration.ConfigurationProvider;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.spongepowered.configurate.ConfigurationOptions;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Group of configurations stored as one YAML file per entry in a directory, such as one file per arena or per guild.
+ * <p>
+ * Only the file names are indexed when the group is created. A file is parsed on the async executor the first time it
+ * is requested, and at most a fixed number of parsed configurations are kept in memory. The least recently used one is
+ * evicted when the limit is exceeded, after its unsaved modifications were written back to disk.
+ * <p>
+ * Callers may keep using a configuration after it was evicted. The group keeps track of it as long as it is referenced:
+ * modifications made to it are written back to disk, and requesting the entry again returns the same configuration
+ * instead of parsing a second copy of the file.
+ * <p>
+ * Entries are identified by their file name without extension. The {@link ConfigurationProvider#getFileId() file id}
+ * of a loaded entry is the group name followed by a slash and the entry key.
+ */
+public class DirectoryConfigGroup {
+
+    private final @NonNull String name;
+    private final @NonNull Path directory;
+    private final @NonNull ConfigurationOptions options;
+    private final @NonNull Executor executor;
+    private final @NonNull Logger logger;
+    private final int maxLoaded;
+
+    private final @NonNull Set<String> keys;
+    private final @NonNull LinkedHashMap<String, ConfigurationProvider> loaded;
+    private final @NonNull Map<String, CompletableFuture<ConfigurationProvider>> loading;
+    private final @NonNull Map<String, ConfigurationProvider> evicting;
+    private final @NonNull Map<String, WeakReference<ConfigurationProvider>> detached;
+
+    public DirectoryConfigGroup(@NonNull String name, @NonNull Path directory, @NonNull ConfigurationOptions options,
+                                int maxLoaded, @NonNull Executor executor, @NonNull Logger logger) throws IOException {
+        this.name = name;
+        this.directory = directory;
+        this.options = options;
+        this.executor = executor;
+        this.logger = logger;
+        this.maxLoaded = Math.max(1, maxLoaded);
+        this.keys = ConcurrentHashMap.newKeySet();
+        this.loaded = new LinkedHashMap<>(16, 0.75f, true); // access ordered, guarded by itself
+        this.loading = new ConcurrentHashMap<>();
+        this.evicting = new ConcurrentHashMap<>();
+        this.detached = new ConcurrentHashMap<>();
+
+        Files.createDirectories(directory);
+        this.refreshIndex();
+    }
+
+    /**
+     * Indexes the names of the {@code .yml} files in the directory again, without parsing any file.
+     *
+     * @throws IOException If the directory could not be listed.
+     */
+    public void refreshIndex() throws IOException {
+        final Set<String> found = new HashSet<>();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(fileName -> fileName.endsWith(".yml"))
+                    .forEach(fileName -> found.add(fileName.substring(0, fileName.length() - 4)));
+        }
+
+        synchronized (this.loaded) {
+            // Entries created in memory but not written yet have no file, and are kept
+            this.keys.removeIf(key -> !found.contains(key) && !this.loaded.containsKey(key));
+        }
+        this.keys.addAll(found);
+    }
+
+    /**
+     * Gets an entry, parsing its file on the async executor if it is not loaded yet.
+     *
+     * @param key The entry key, the file name without extension.
+     * @return Future completing with the configuration of the entry. Completes exceptionally with a
+     * {@link NoSuchElementException} if there is no such file, or with the parse failure.
+     */
+    public @NonNull CompletableFuture<ConfigurationProvider> get(@NonNull String key) {
+        final ConfigurationProvider provider = this.getIfLoaded(key).orElse(null);
+        if (provider != null) {
+            return CompletableFuture.completedFuture(provider);
+        }
+
+        if (!this.keys.contains(key)) {
+            return CompletableFuture.failedFuture(new NoSuchElementException("No configuration '" + key + "' in group: " + this.name));
+        }
+        return this.load(key);
+    }
+
+    /**
+     * Gets an entry, creating an empty one if its file does not exist yet. The file is written on the next flush
+     * once a value is set.
+     *
+     * @param key The entry key, the file name without extension.
+     * @return Future completing with the configuration of the entry.
+     */
+    public @NonNull CompletableFuture<ConfigurationProvider> getOrCreate(@NonNull String key) {
+        validateKey(key);
+        this.keys.add(key);
+        return this.get(key);
+    }
+
+    /**
+     * Gets an entry only if it is currently loaded, without parsing it.
+     *
+     * @param key The entry key.
+     * @return The loaded configuration wrapped in an {@link Optional}.
+     */
+    public @NonNull Optional<ConfigurationProvider> getIfLoaded(@NonNull String key) {
+        synchronized (this.loaded) {
+            ConfigurationProvider provider = this.loaded.get(key);
+            if (provider == null) {
+                // Evicted but still being written back or referenced by a caller, so it is admitted again
+                // instead of reading a stale file or creating a second copy
+                provider = this.evicting.get(key);
+                if (provider == null) {
+                    provider = this.getDetached(key);
+                }
+                if (provider != null) {
+                    this.detached.remove(key);
+                    this.admit(key, provider);
+                }
+            }
+            return Optional.ofNullable(provider);
+        }
+    }
+
+    private @Nullable ConfigurationProvider getDetached(@NonNull String key) {
+        final WeakReference<ConfigurationProvider> reference = this.detached.get(key);
+        if (reference == null) {
+            return null;
+        }
+
+        final ConfigurationProvider provider = reference.get();
+        if (provider == null) {
+            this.detached.remove(key, reference);
+        }
+        return provider;
+    }
+
+    private @NonNull CompletableFuture<ConfigurationProvider> load(@NonNull String key) {
+        final CompletableFuture<ConfigurationProvider> future = this.loading.computeIfAbsent(key, id -> CompletableFuture
+                .supplyAsync(() -> this.parse(id), this.executor)
+                .thenApply(parsed -> {
+                    synchronized (this.loaded) {
+                        ConfigurationProvider existing = this.getIfLoaded(id).orElse(null);
+                        if (existing != null) {
+                            return existing;
+                        }
+                        parsed.setDirtyListener(() -> this.onModified(id, parsed));
+                        this.admit(id, parsed);
+                        return parsed;
+                    }
+                }));
+
+        // Registered outside of computeIfAbsent, since a completed future runs the cleanup immediately,
+        // and removing the key while it is being computed fails. Only this load is removed, not a newer one.
+        future.whenComplete((provider, throwable) -> this.loading.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Adds a configuration to the loaded entries, evicting the least recently used ones above the limit.
+     * Must be called while holding the lock of the loaded entries.
+     */
+    private void admit(@NonNull String key, @NonNull ConfigurationProvider provider) {
+        this.loaded.put(key, provider);
+
+        final Iterator<Map.Entry<String, ConfigurationProvider>> iterator = this.loaded.entrySet().iterator();
+        while (this.loaded.size() > this.maxLoaded && iterator.hasNext()) {
+            Map.Entry<String, ConfigurationProvider> eldest = iterator.next();
+            iterator.remove();
+            this.evict(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Forgets a configuration that is no longer loaded, while keeping track of it for as long as callers reference it.
+     */
+    private void evict(@NonNull String key, @NonNull ConfigurationProvider provider) {
+        this.detached.put(key, new WeakReference<>(provider));
+        this.writeBack(key, provider);
+    }
+
+    /**
+     * Called when a configuration of this group is modified after it was clean. Modifications of an evicted configuration
+     * are written back right away, since no flush covers it otherwise.
+     */
+    private void onModified(@NonNull String key, @NonNull ConfigurationProvider provider) {
+        synchronized (this.loaded) {
+            if (this.loaded.get(key) != provider && this.getDetached(key) == provider) {
+                this.writeBack(key, provider);
+            }
+        }
+    }
+
+    private void writeBack(@NonNull String key, @NonNull ConfigurationProvider provider) {
+        if (!provider.isDirty()) {
+            return;
+        }
+
+        this.evicting.put(key, provider);
+        this.executor.execute(() -> {
+            try {
+                provider.saveIfDirty();
+            } catch (IOException exception) {
+                this.logger.error("Failed to save evicted configuration: {}", provider.getFileId(), exception);
+            } finally {
+                this.evicting.remove(key, provider);
+            }
+        });
+    }
+
+    private @NonNull ConfigurationProvider parse(@NonNull String key) {
+        return new ConfigurationProvider(this.name + "/" + key, this.fileOf(key).toFile(), this.options);
+    }
+
+    /**
+     * Streams over every entry of the group, for example to migrate all files.
+     * <p>
+     * Loaded entries are returned as is, while the others are parsed lazily on the calling thread without being kept
+     * in memory by the group, so streaming never evicts the entries in use. Changes made to entries that were not loaded
+     * must be saved by the caller, use {@link #migrate(Consumer)} to have them saved automatically. Files that fail
+     * to parse are skipped.
+     *
+     * @return Stream over the configurations of all entries.
+     */
+    public @NonNull Stream<ConfigurationProvider> stream() {
+        return List.copyOf(this.keys).stream()
+                .map(key -> {
+                    Optional<ConfigurationProvider> loaded = this.getIfLoaded(key);
+                    if (loaded.isPresent()) {
+                        return loaded.get();
+                    }
+
+                    try {
+                        return this.parse(key);
+                    } catch (RuntimeException exception) {
+                        this.logger.warn("Skipping unreadable configuration '{}' in group: {}", key, this.name, exception);
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Applies a modification to every entry of the group on the async executor and saves every modified entry.
+     *
+     * @param migration The modification to apply to each configuration.
+     * @return Future completing with the number of saved entries.
+     */
+    public @NonNull CompletableFuture<Integer> migrate(@NonNull Consumer<ConfigurationProvider> migration) {
+        return CompletableFuture.supplyAsync(() -> {
+            int saved = 0;
+            Iterator<ConfigurationProvider> iterator = this.stream().iterator();
+            while (iterator.hasNext()) {
+                ConfigurationProvider provider = iterator.next();
+                try {
+                    migration.accept(provider);
+                    if (provider.saveIfDirty()) {
+                        saved++;
+                    }
+                } catch (Exception exception) {
+                    this.logger.error("Failed to migrate configuration: {}", provider.getFileId(), exception);
+                }
+            }
+            return saved;
+        }, this.executor);
+    }
+
+    /**
+     * Writes every entry with unsaved modifications to disk on the calling thread, including evicted entries
+     * that are still being written back or are still referenced by callers.
+     *
+     * @return The number of written entries.
+     */
+    public int flushDirty() {
+        final Set<ConfigurationProvider> providers = Collections.newSetFromMap(new IdentityHashMap<>());
+        synchronized (this.loaded) {
+            providers.addAll(this.loaded.values());
+        }
+        providers.addAll(this.evicting.values());
+        for (String key : this.detached.keySet()) {
+            ConfigurationProvider provider = this.getDetached(key);
+            if (provider != null) {
+                providers.add(provider);
+            }
+        }
+
+        int saved = 0;
+        for (ConfigurationProvider provider : providers) {
+            try {
+                if (provider.saveIfDirty()) {
+                    saved++;
+                }
+            } catch (IOException exception) {
+                this.logger.error("Failed to save configuration: {}", provider.getFileId(), exception);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Removes an entry from memory, writing its unsaved modifications back first.
+     *
+     * @param key The entry key.
+     */
+    public void unload(@NonNull String key) {
+        synchronized (this.loaded) {
+            ConfigurationProvider provider = this.loaded.remove(key);
+            if (provider != null) {
+                this.evict(key, provider);
+            }
+        }
+    }
+
+    /**
+     * Deletes the file of an entry and removes it from the group.
+     *
+     * @param key The entry key.
+     * @return True if the file existed and was deleted.
+     * @throws IOException If the file could not be deleted.
+     */
+    public boolean delete(@NonNull String key) throws IOException {
+        validateKey(key);
+        synchronized (this.loaded) {
+            this.loaded.remove(key);
+            this.detached.remove(key);
+            this.keys.remove(key);
+        }
+        return Files.deleteIfExists(this.fileOf(key));
+    }
+
+    private @NonNull Path fileOf(@NonNull String key) {
+        return this.directory.resolve(key + ".yml");
+    }
+
+    private static void validateKey(@NonNull String key) {
+        if (key.isEmpty() || key.contains("/") || key.contains("\\") || key.contains("..")) {
+            throw new IllegalArgumentException("Invalid configuration key: " + key);
+        }
+    }
+
+    /**
+     * @param key The entry key.
+     * @return If the group has an entry with this key, loaded or not.
+     */
+    public boolean contains(@NonNull String key) {
+        return this.keys.contains(key);
+    }
+
+    /**
+     * @return Unmodifiable view of the keys of all entries.
+     */
+    public @NonNull Set<String> getKeys() {
+        return Collections.unmodifiableSet(this.keys);
+    }
+
+    /**
+     * @return The number of entries currently kept in memory.
+     */
+    public int getLoadedCount() {
+        synchronized (this.loaded) {
+            return this.loaded.size();
+        }
+    }
+
+    /**
+     * @return The maximum number of entries kept in memory.
+     */
+    public int getMaxLoaded() {
+        return this.maxLoaded;
+    }
+
+    /**
+     * @return The name of this group, which is its directory relative to the data folder.
+     */
+    public @NonNull String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return The directory holding the files of this group.
+     */
+    public @NonNull Path getDirectory() {
+        return this.directory;
+    }
+}
@@ -10,16 +10,65 @@ import java.util.Optional;
 
 public interface ConfigReloadable {
 
+    /**
+     * Parses the configuration file again on the calling thread and returns the new root node.
+     * <p>
+     * The file is parsed without the content hash check and without notifying subscribers, and values changed with
+     * {@link ConfigurationProvider#set(Object, Object...)} that were not saved yet are lost. Reloadables called after
+     * {@link ConfigReloader#reloadAsync()} or a file change should use {@link #currentRootNode(Tools, ConfigIdWrapper)},
+     * since the configuration was already reloaded off the main thread by then.
+     *
+     * @param plugin    The plugin owning the configuration.
+     * @param idWrapper The identifier of the configuration.
+     * @return The reloaded root node.
+     * @deprecated Parses the file on the calling thread, use {@link #currentRootNode(Tools, ConfigIdWrapper)} together with
+     * {@link ConfigReloader#reloadAsync()} instead.
+     */
+    @Deprecated
     static @NonNull ConfigurationNode reloadRootNode(@NonNull Tools plugin, @NonNull ConfigIdWrapper idWrapper) {
+        ConfigurationProvider configurationProvider = getProvider(plugin, idWrapper);
+        configurationProvider.reload(plugin.getConfigurationManager().getDefaultOptions());
+        return configurationProvider.getRootNode();
+    }
+
+    /**
+     * Gets the root node of the currently published snapshot of a configuration, without reading the file.
+     * <p>
+     * When {@link #loadConfig(Tools)} is called for a changed file or by {@link ConfigReloader#reloadAsync()},
+     * the new snapshot was already parsed off the main thread and published.
+     *
+     * @param plugin    The plugin owning the configuration.
+     * @param idWrapper The identifier of the configuration.
+     * @return The current root node, which must not be modified.
+     */
+    static @NonNull ConfigurationNode currentRootNode(@NonNull Tools plugin, @NonNull ConfigIdWrapper idWrapper) {
+        return getProvider(plugin, idWrapper).getRootNode();
+    }
+
+    private static @NonNull ConfigurationProvider getProvider(@NonNull Tools plugin, @NonNull ConfigIdWrapper idWrapper) {
         Optional<ConfigurationProvider> config = plugin.getConfigurationManager().getConfigById(idWrapper);
         if (config.isEmpty()) {
             throw new NullPointerException("Could not find config root node with id: " + idWrapper.getKey());
         }
 
-        ConfigurationProvider configurationProvider = config.get();
-        configurationProvider.reload(plugin.getConfigurationManager().getDefaultOptions());
-        return configurationProvider.getRootNode();
+        return config.get();
     }
 
     void loadConfig(@NonNull Tools plugin);
+
+    /**
+     * Checks if {@link #loadConfig(Tools)} should be called after the provided configuration changed on disk.
+     * <p>
+     * The default keeps the previous behavior and reloads on a change of any configuration, since the configurations
+     * a component reads are not known. Components should override this method to return true only for their own
+     * configurations, or subscribe to the paths they read through
+     * {@link me.sunmc.tools.configuration.ConfigurationManager#subscribe(String, me.sunmc.tools.configuration.change.ConfigChangeListener, Object...)},
+     * so that editing an unrelated value does not rebuild their state.
+     *
+     * @param configId Identifier of the changed configuration.
+     * @return True to reload on changes of the configuration. By default, any configuration change triggers a reload.
+     */
+    default boolean reloadsOn(@NonNull String configId) {
+        return true;
+    }
 }
\ No newline at end of file
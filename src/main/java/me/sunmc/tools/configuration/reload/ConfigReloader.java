@@ -1,11 +1,17 @@
 package me.sunmc.tools.configuration.reload;
 
 import me.sunmc.tools.Tools;
+import me.sunmc.tools.configuration.ConfigurationManager;
 import me.sunmc.tools.registry.RegistryFactory;
 import me.sunmc.tools.utils.java.LoggerUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class ConfigReloader {
 
     private final Logger logger;
@@ -19,9 +25,46 @@ public class ConfigReloader {
         this.registryFactory = plugin.getRegistryFactory();
     }
 
+    /**
+     * Reloads all configurations and then every {@link ConfigReloadable} on the calling thread, before returning.
+     * <p>
+     * Every file is parsed on the calling thread, including files whose content did not change.
+     *
+     * @deprecated Parses every file on the calling thread, use {@link #reloadAsync()} instead.
+     */
+    @Deprecated
     public void reload() {
         this.plugin.getConfigurationManager().reloadConfigurations();
+        this.reloadAll();
+    }
+
+    /**
+     * Reloads all configurations and then every {@link ConfigReloadable} on the main thread.
+     * <p>
+     * The configurations are reloaded through {@link ConfigurationManager#reloadConfigurationAsync(String, java.util.function.Consumer)},
+     * so files are parsed off the main thread, files whose content did not change are skipped, and subscribers are notified of the changes.
+     * A file that fails to parse keeps its previous configuration.
+     *
+     * @return Future completing once the reloadables were reloaded.
+     */
+    public @NonNull CompletableFuture<Void> reloadAsync() {
+        final ConfigurationManager configurationManager = this.plugin.getConfigurationManager();
+        final List<CompletableFuture<?>> reloads = new ArrayList<>();
+
+        for (String identifier : configurationManager.getAllConfigurations().keySet()) {
+            reloads.add(configurationManager.reloadConfigurationAsync(identifier, null).exceptionally(throwable -> {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                this.logger.error("Failed to reload configuration, keeping the previous version: {}", identifier, cause);
+                return null;
+            }));
+        }
+
+        return CompletableFuture.allOf(reloads.toArray(CompletableFuture[]::new))
+                .thenRunAsync(this::reloadAll, this.plugin.getSchedulerAdapter().sync());
+    }
 
+    private void reloadAll() {
         this.registryFactory.getClassesImplementing(ConfigReloadable.class).forEach(clazz -> {
             ConfigReloadable reloadable = (ConfigReloadable) this.registryFactory.createEffectiveInstance(clazz);
             if (reloadable == null) {
@@ -31,4 +74,4 @@ public class ConfigReloader {
             }
         });
     }
-}
\ No newline at end of file
+}
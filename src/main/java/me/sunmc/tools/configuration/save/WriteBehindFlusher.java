@@ -0,0 +1,196 @@
+package me.sunmc.tools.configuration.save;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.configuration.ConfigurationManager;
+import me.sunmc.tools.configuration.ConfigurationProvider;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldSaveEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes modified configurations to disk in the background.
+ * <p>
+ * {@link ConfigurationProvider#set(Object, Object...)} only marks a configuration dirty. The flusher periodically writes
+ * every dirty configuration on the async executor, so any number of sets between two flushes result in a single write
+ * of the latest snapshot. Flushes can also be aligned with the world saves of the server instead of a fixed interval.
+ * <p>
+ * On shutdown, {@link #shutdown(long, TimeUnit)} runs a final blocking flush that gives up after a deadline.
+ */
+public class WriteBehindFlusher {
+
+    private final @NonNull Tools plugin;
+    private final @NonNull ConfigurationManager manager;
+    private final @NonNull Logger logger;
+    private final @NonNull AtomicReference<CompletableFuture<Integer>> pending;
+
+    private long intervalMillis = 5000;
+    private boolean alignWithWorldSave = false;
+    private @Nullable SchedulerTask task;
+    private @Nullable WorldSaveListener listener;
+
+    public WriteBehindFlusher(@NonNull Tools plugin, @NonNull ConfigurationManager manager, @NonNull Logger logger) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.logger = logger;
+        this.pending = new AtomicReference<>();
+    }
+
+    /**
+     * Starts flushing dirty configurations, either at the configured interval or on every world save.
+     * Must be called once the {@link me.sunmc.tools.scheduler.interfaces.SchedulerAdapter} is available.
+     */
+    public synchronized void start() {
+        this.stop();
+
+        if (this.alignWithWorldSave) {
+            this.listener = new WorldSaveListener(this);
+            this.plugin.getServer().getPluginManager().registerEvents(this.listener, this.plugin);
+        } else {
+            this.task = this.plugin.getSchedulerAdapter().asyncRepeating(this::flushNow,
+                    this.intervalMillis, this.intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the periodic or world save aligned flushes. Dirty configurations stay dirty.
+     */
+    public synchronized void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+
+        if (this.listener != null) {
+            HandlerList.unregisterAll(this.listener);
+            this.listener = null;
+        }
+    }
+
+    /**
+     * Requests a flush of all dirty configurations on the async executor.
+     * <p>
+     * Requests made before a scheduled flush started share its future, since that flush will write their changes as well.
+     *
+     * @return Future completing with the number of written configurations.
+     */
+    public @NonNull CompletableFuture<Integer> requestFlush() {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        final CompletableFuture<Integer> existing = this.pending.compareAndExchange(null, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        this.plugin.getSchedulerAdapter().executeAsync(() -> {
+            // Changes made from now on are not guaranteed to be picked up, so they need a new flush
+            this.pending.set(null);
+            try {
+                future.complete(this.manager.flushDirty());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stops the flusher and writes all remaining dirty configurations, blocking until they are written or the deadline passed.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The {@link TimeUnit} of the {@param timeout}.
+     * @return True if every dirty configuration was written in time, false otherwise.
+     */
+    public boolean shutdown(long timeout, @NonNull TimeUnit unit) {
+        this.stop();
+
+        // Runs on its own thread, so a saturated async executor cannot hold the shutdown past the deadline
+        final CompletableFuture<Integer> flush = CompletableFuture.supplyAsync(this.manager::flushDirty, runnable -> {
+            Thread thread = new Thread(runnable, "suntools-config-flush");
+            thread.setDaemon(true);
+            thread.start();
+        });
+
+        try {
+            int written = flush.get(timeout, unit);
+            if (written > 0) {
+                this.logger.info("Saved {} modified configurations", written);
+            }
+            return true;
+        } catch (TimeoutException exception) {
+            this.logger.warn("Configurations were not saved within {}ms, unsaved: {}",
+                    unit.toMillis(timeout), this.getDirtyConfigurations());
+        } catch (ExecutionException exception) {
+            this.logger.error("Failed to save modified configurations", exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void flushNow() {
+        try {
+            this.manager.flushDirty();
+        } catch (Exception exception) {
+            this.logger.error("Failed to flush modified configurations", exception);
+        }
+    }
+
+    /**
+     * @return Identifiers of the configurations waiting to be written.
+     */
+    public @NonNull List<String> getDirtyConfigurations() {
+        return this.manager.getAllConfigurations().values().stream()
+                .filter(ConfigurationProvider::isDirty)
+                .map(ConfigurationProvider::getFileId)
+                .toList();
+    }
+
+    /**
+     * Sets the interval between two periodic flushes. Takes effect on the next {@link #start()}.
+     *
+     * @param interval The interval.
+     * @param unit     The {@link TimeUnit} of the {@param interval}.
+     */
+    public void setInterval(long interval, @NonNull TimeUnit unit) {
+        this.intervalMillis = Math.max(50, unit.toMillis(interval));
+    }
+
+    /**
+     * Sets whether dirty configurations are flushed together with the world saves of the server instead of at a fixed interval.
+     * Takes effect on the next {@link #start()}.
+     *
+     * @param alignWithWorldSave True to flush on {@link WorldSaveEvent}, false to flush periodically.
+     */
+    public void setAlignWithWorldSave(boolean alignWithWorldSave) {
+        this.alignWithWorldSave = alignWithWorldSave;
+    }
+
+    /**
+     * Listener requesting a flush whenever a world is saved. Requests of worlds saved before the flush started share it.
+     */
+    private static class WorldSaveListener implements Listener {
+
+        private final @NonNull WriteBehindFlusher flusher;
+
+        WorldSaveListener(@NonNull WriteBehindFlusher flusher) {
+            this.flusher = flusher;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onWorldSave(@NonNull WorldSaveEvent event) {
+            this.flusher.requestFlush();
+        }
+    }
+}
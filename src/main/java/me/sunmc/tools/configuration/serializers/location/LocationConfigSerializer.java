@@ -14,7 +14,22 @@ public class LocationConfigSerializer implements TypeSerializer<Location> {
 
     @Override
     public void serialize(Type type, @Nullable Location obj, ConfigurationNode node) throws SerializationException {
-        throw new UnsupportedOperationException();
+        if (obj == null) {
+            node.raw(null);
+            return;
+        }
+
+        World world = obj.getWorld();
+        if (world == null) {
+            throw new SerializationException("Cannot serialize a location without a world");
+        }
+
+        node.node("world").set(world.getName());
+        node.node("x").set(obj.getX());
+        node.node("y").set(obj.getY());
+        node.node("z").set(obj.getZ());
+        node.node("yaw").set((double) obj.getYaw());
+        node.node("pitch").set((double) obj.getPitch());
     }
 
     @Override
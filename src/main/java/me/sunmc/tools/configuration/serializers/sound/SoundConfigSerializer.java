@@ -57,6 +57,12 @@ public class SoundConfigSerializer implements TypeSerializer<SoundWrapper> {
 
     @Override
     public void serialize(Type type, @Nullable SoundWrapper obj, ConfigurationNode node) throws SerializationException {
-        throw new UnsupportedOperationException("This is not supported yet.");
+        if (obj == null) {
+            node.raw(null);
+            return;
+        }
+
+        // Same "SOUND,volume,pitch" format as read by deserialize
+        node.set(obj.sound().name() + "," + obj.volume() + "," + obj.pitch());
     }
 }
\ No newline at end of file
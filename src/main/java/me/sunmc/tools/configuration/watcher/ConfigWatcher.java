@@ -3,43 +3,54 @@ package me.sunmc.tools.configuration.watcher;
 import me.sunmc.tools.Tools;
 import me.sunmc.tools.component.Component;
 import me.sunmc.tools.configuration.ConfigurationManager;
+import me.sunmc.tools.configuration.change.ConfigChangeSet;
 import me.sunmc.tools.configuration.reload.ConfigReloadable;
 import me.sunmc.tools.registry.AutoRegister;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.IOException;
 import java.nio.file.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Watches configuration files for changes and automatically reloads them.
- * This component monitors the plugin's data folder for file modifications
+ * This component monitors the plugin's data folder and its subdirectories for file modifications
  * and triggers reload events when changes are detected.
  *
  * <p>Features:
  * - Automatic file change detection
- * - Configurable watch interval
+ * - Recursive watching of subdirectories
  * - Support for multiple configuration files
  * - Integration with ConfigReloadable components
- * - Debouncing to prevent multiple reloads
+ * - Coalescing of event bursts into one batched reload
+ * - Content hashing, so rewriting a file with the same bytes does not reload it
+ * - Parsing off the main thread, only the snapshot swap and notifications run on it
  *
  * @version 1.0.0
  */
 @AutoRegister(Component.class)
 public class ConfigWatcher implements Component {
 
+    private static final @NonNull Set<String> IGNORED_DIRECTORIES = Set.of("backups", ".cache");
+
     private final @NonNull Tools plugin;
-    private final @NonNull Map<String, Long> lastModified;
+    private final @NonNull Map<WatchKey, Path> watchedDirectories;
+    private final @NonNull Set<String> pendingChanges;
     private @NonNull WatchService watchService;
     private @NonNull Thread watchThread;
     private volatile boolean running = false;
-    private long debounceMs = 1000; // 1 second debounce
+    private volatile long debounceMs = 300; // quiet period before a burst is flushed
+    private long lastEventNanos = 0;
 
     public ConfigWatcher(@NonNull Tools plugin) {
         this.plugin = plugin;
-        this.lastModified = new HashMap<>();
+        // Both are only accessed from the watch thread
+        this.watchedDirectories = new HashMap<>();
+        this.pendingChanges = new LinkedHashSet<>();
     }
 
     @Override
@@ -67,12 +78,13 @@ public class ConfigWatcher implements Component {
 
     /**
      * Sets the debounce time in milliseconds.
-     * This prevents multiple reloads when a file is saved multiple times quickly.
+     * All changes detected until no event was received for this long are reloaded together in one batch,
+     * which prevents multiple reloads when a file is saved multiple times quickly or many files change at once.
      *
      * @param debounceMs The debounce time in milliseconds.
      */
     public void setDebounceTime(long debounceMs) {
-        this.debounceMs = debounceMs;
+        this.debounceMs = Math.max(0, debounceMs);
     }
 
     /**
@@ -82,11 +94,7 @@ public class ConfigWatcher implements Component {
         Path dataFolder = this.plugin.getDataFolder().toPath();
 
         try {
-            dataFolder.register(
-                    this.watchService,
-                    StandardWatchEventKinds.ENTRY_MODIFY,
-                    StandardWatchEventKinds.ENTRY_CREATE
-            );
+            this.registerRecursively(dataFolder);
         } catch (IOException e) {
             Tools.LOG.error("Failed to register watch service", e);
             return;
@@ -98,6 +106,34 @@ public class ConfigWatcher implements Component {
         this.watchThread.start();
     }
 
+    /**
+     * Registers the directory and all of its subdirectories, except the backup and cache directories, with the watch service.
+     *
+     * @param root The directory to register.
+     * @throws IOException If the directory tree could not be walked.
+     */
+    private void registerRecursively(@NonNull Path root) throws IOException {
+        final Path dataFolder = this.plugin.getDataFolder().toPath();
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public @NonNull FileVisitResult preVisitDirectory(@NonNull Path dir, @NonNull BasicFileAttributes attrs) throws IOException {
+                if (dir.getParent() != null && dir.getParent().equals(dataFolder)
+                        && IGNORED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                WatchKey key = dir.register(
+                        ConfigWatcher.this.watchService,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_CREATE
+                );
+                ConfigWatcher.this.watchedDirectories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
     /**
      * Stops watching for configuration changes.
      */
@@ -110,99 +146,151 @@ public class ConfigWatcher implements Component {
 
     /**
      * Main watch loop that monitors for file changes.
+     * Changes are collected until the debounce time passed without new events and then flushed as one batch.
      */
     private void watchLoop() {
+        final Path dataFolder = this.plugin.getDataFolder().toPath();
+
         while (this.running) {
             WatchKey key;
             try {
-                key = this.watchService.poll(1, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
+                key = this.pendingChanges.isEmpty()
+                        ? this.watchService.poll(1, TimeUnit.SECONDS)
+                        : this.watchService.poll(Math.max(10, this.debounceMs / 4), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
                 break;
             }
 
-            if (key == null) {
-                continue;
+            if (key != null) {
+                this.processEvents(key, dataFolder);
             }
 
-            for (WatchEvent<?> event : key.pollEvents()) {
-                WatchEvent.Kind<?> kind = event.kind();
+            if (!this.pendingChanges.isEmpty()
+                    && System.nanoTime() - this.lastEventNanos >= TimeUnit.MILLISECONDS.toNanos(this.debounceMs)) {
+                List<String> batch = new ArrayList<>(this.pendingChanges);
+                this.pendingChanges.clear();
+                this.reloadConfigs(batch);
+            }
+        }
+    }
 
-                if (kind == StandardWatchEventKinds.OVERFLOW) {
-                    continue;
-                }
+    /**
+     * Collects the configuration files changed by the events of a watch key, and registers newly created directories.
+     */
+    private void processEvents(@NonNull WatchKey key, @NonNull Path dataFolder) {
+        final Path directory = this.watchedDirectories.get(key);
 
-                @SuppressWarnings("unchecked")
-                WatchEvent<Path> pathEvent = (WatchEvent<Path>) event;
-                Path fileName = pathEvent.context();
-                String fileNameStr = fileName.toString();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
 
-                // Only process .yml files
-                if (!fileNameStr.endsWith(".yml") && !fileNameStr.endsWith(".yaml")) {
-                    continue;
-                }
+            if (kind == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                continue;
+            }
 
-                // Check debounce
-                long now = System.currentTimeMillis();
-                Long lastMod = this.lastModified.get(fileNameStr);
-                if (lastMod != null && (now - lastMod) < this.debounceMs) {
-                    continue;
+            @SuppressWarnings("unchecked")
+            WatchEvent<Path> pathEvent = (WatchEvent<Path>) event;
+            Path path = directory.resolve(pathEvent.context());
+
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    this.registerRecursively(path);
+                } catch (IOException e) {
+                    Tools.LOG.warn("Failed to watch new directory: {}", path, e);
                 }
+                continue;
+            }
 
-                this.lastModified.put(fileNameStr, now);
+            String fileNameStr = dataFolder.relativize(path).toString().replace('\\', '/');
 
-                // Schedule reload on main thread
-                this.plugin.getSchedulerAdapter().executeSync(() -> this.reloadConfig(fileNameStr));
+            // Only process .yml files
+            if (!fileNameStr.endsWith(".yml") && !fileNameStr.endsWith(".yaml")) {
+                continue;
             }
 
-            boolean valid = key.reset();
-            if (!valid) {
-                break;
-            }
+            this.pendingChanges.add(fileNameStr);
+            this.lastEventNanos = System.nanoTime();
+        }
+
+        if (!key.reset()) {
+            this.watchedDirectories.remove(key);
         }
     }
 
     /**
-     * Reloads a specific configuration file.
+     * Reloads a batch of changed configuration files.
+     * <p>
+     * Every file is hashed and parsed on the async executor, and files whose content did not change are skipped.
+     * Each new snapshot is swapped in on the main thread. Once the whole batch is done, the
+     * {@link ConfigReloadable} components are notified once on the main thread. A file that fails to parse keeps its previous configuration.
      *
-     * @param fileName The file name that was modified.
+     * @param fileNames The changed file names, relative to the data folder.
      */
-    private void reloadConfig(@NonNull String fileName) {
-        // Remove extension
-        String configName = fileName.replace(".yml", "").replace(".yaml", "");
+    private void reloadConfigs(@NonNull List<String> fileNames) {
+        final ConfigurationManager configManager = this.plugin.getConfigurationManager();
+        final List<CompletableFuture<ConfigChangeSet>> reloads = new ArrayList<>();
 
-        Tools.LOG.info("Detected change in configuration file: {}", fileName);
-        Tools.LOG.info("Reloading configuration: {}", configName);
+        for (String fileName : fileNames) {
+            // Remove extension
+            String configName = fileName.replace(".yml", "").replace(".yaml", "");
 
-        // Reload through ConfigurationManager
-        ConfigurationManager configManager = this.plugin.getConfigurationManager();
-        configManager.getConfigById(configName).ifPresent(provider -> {
-            try {
-                provider.reload(configManager.getDefaultOptions());
-                Tools.LOG.info("Successfully reloaded configuration: {}", configName);
+            // Reload through ConfigurationManager
+            if (!configManager.isLoaded(configName)) {
+                continue;
+            }
+
+            Tools.LOG.debug("Detected change in configuration file: {}", fileName);
+
+            reloads.add(configManager.reloadConfigurationAsync(configName, changeSet -> {
+                if (!changeSet.isEmpty()) {
+                    Tools.LOG.info("Successfully reloaded configuration: {} ({} changed paths)", configName, changeSet.changes().size());
+                }
+            }).exceptionally(throwable -> {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                Tools.LOG.error("Failed to reload configuration, keeping the previous version: {}", configName, cause);
+                return null;
+            }));
+        }
+
+        if (reloads.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture.allOf(reloads.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            final Set<String> changed = new LinkedHashSet<>();
+            for (CompletableFuture<ConfigChangeSet> reload : reloads) {
+                ConfigChangeSet changeSet = reload.join();
+                if (changeSet != null && !changeSet.isEmpty()) {
+                    changed.add(changeSet.configId());
+                }
+            }
 
-                // Trigger reload for all reloadable components
-                this.triggerComponentReloads(configName);
-            } catch (Exception e) {
-                Tools.LOG.error("Failed to reload configuration: {}", configName, e);
+            if (!changed.isEmpty()) {
+                // Trigger reload for the reloadable components interested in these configurations
+                this.plugin.getSchedulerAdapter().executeSync(() -> this.triggerComponentReloads(changed));
             }
         });
     }
 
     /**
-     * Triggers reload events for all components that implement ConfigReloadable.
+     * Triggers reload events for the components implementing ConfigReloadable that {@link ConfigReloadable#reloadsOn(String) reload on}
+     * any of the changed configurations. Each component is reloaded at most once per batch. Components only interested in specific
+     * paths should subscribe through
+     * {@link ConfigurationManager#subscribe(String, me.sunmc.tools.configuration.change.ConfigChangeListener, Object...)} instead.
      *
-     * @param configName The name of the configuration that was reloaded.
+     * @param configNames The names of the configurations that were reloaded.
      */
-    private void triggerComponentReloads(@NonNull String configName) {
+    private void triggerComponentReloads(@NonNull Set<String> configNames) {
         // Find all components that implement ConfigReloadable
         this.plugin.getRegistryFactory()
-                .findClassesImplementingInterface(ConfigReloadable.class)
+                .getClassesImplementing(ConfigReloadable.class)
                 .forEach(clazz -> {
                     try {
                         Object instance = this.plugin.getRegistryFactory()
                                 .getInstance(clazz.getName());
 
-                        if (instance instanceof ConfigReloadable reloadable) {
+                        if (instance instanceof ConfigReloadable reloadable
+                                && configNames.stream().anyMatch(reloadable::reloadsOn)) {
                             reloadable.loadConfig(this.plugin);
                             Tools.LOG.debug("Reloaded configuration for: {}",
                                     clazz.getSimpleName());
@@ -213,4 +301,4 @@ public class ConfigWatcher implements Component {
                     }
                 });
     }
-}
\ No newline at end of file
+}
@@ -26,8 +26,43 @@ public class ItemStackConfigSerializer implements TypeSerializer<ItemStack> {
 
     @Override
     public void serialize(Type type, @Nullable ItemStack obj, ConfigurationNode node) throws SerializationException {
-        // TODO
-        throw new UnsupportedOperationException("Serializing an ItemStack is not supported yet!");
+        if (obj == null) {
+            node.raw(null);
+            return;
+        }
+
+        node.node("material").set(obj.getType().name());
+        if (obj.getAmount() != 1) {
+            node.node("amount").set(obj.getAmount());
+        }
+
+        final ItemMeta meta = obj.getItemMeta();
+        if (meta == null) {
+            return;
+        }
+
+        if (meta.hasCustomModelData()) {
+            node.node("model-data").set(meta.getCustomModelData());
+        }
+
+        if (meta.hasDisplayName()) {
+            node.node("display-name").set(LegacyComponentUtil.toString(meta.displayName()));
+        }
+
+        if (meta.hasLore()) {
+            node.node("lore").setList(String.class, LegacyComponentUtil.toStringList(meta.lore()));
+        }
+
+        if (meta.hasEnchants()) {
+            final ConfigurationNode enchantments = node.node("enchantments");
+            for (Map.Entry<Enchantment, Integer> enchantmentEntry : meta.getEnchants().entrySet()) {
+                enchantments.node(enchantmentEntry.getKey().getKey().getKey()).set(enchantmentEntry.getValue());
+            }
+        }
+
+        if (!meta.getItemFlags().isEmpty()) {
+            node.node("flags").setList(String.class, meta.getItemFlags().stream().map(ItemFlag::name).toList());
+        }
     }
 
     @Override
@@ -59,7 +94,7 @@ public class ItemStackConfigSerializer implements TypeSerializer<ItemStack> {
         }
 
         if (node.hasChild("enchantments")) {
-            for (Map.Entry<Object, ? extends ConfigurationNode> enchantmentEntry : node.childrenMap().entrySet()) {
+            for (Map.Entry<Object, ? extends ConfigurationNode> enchantmentEntry : node.node("enchantments").childrenMap().entrySet()) {
                 String key = String.valueOf(enchantmentEntry.getKey()).toLowerCase();
 
                 Enchantment enchantment = Registry.ENCHANTMENT.get(NamespacedKey.minecraft(key));
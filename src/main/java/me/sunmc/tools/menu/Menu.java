@@ -3,6 +3,8 @@ package me.sunmc.tools.menu;
 import me.sunmc.tools.Tools;
 import me.sunmc.tools.menu.item.MenuItem;
 import me.sunmc.tools.menu.pattern.MenuPattern;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import me.sunmc.tools.utils.bukkit.TickUtil;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -17,6 +19,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -41,7 +44,7 @@ public abstract class Menu implements InventoryHolder {
     private boolean allowItemMovement = false;
     private boolean autoRefresh = false;
     private int refreshInterval = 20; // ticks
-    private @Nullable Integer taskId;
+    private @Nullable SchedulerTask refreshTask;
     private @Nullable Menu previousMenu;
     private boolean preventClose = false;
     private boolean playSounds = true;
@@ -530,15 +533,18 @@ public abstract class Menu implements InventoryHolder {
      * Starts auto-refresh task for this menu.
      */
     private void startAutoRefresh() {
-        if (this.taskId != null) {
+        Player player = this.getViewer();
+        if (this.refreshTask != null || player == null) {
             return;
         }
 
-        this.taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(
-                Tools.getInstance(),
+        final long interval = this.refreshInterval * TickUtil.TICK_IN_MILLIS;
+        this.refreshTask = Tools.getInstance().getSchedulerAdapter().syncRepeating(
+                player,
                 this::refresh,
-                this.refreshInterval,
-                this.refreshInterval
+                interval,
+                interval,
+                TimeUnit.MILLISECONDS
         );
     }
 
@@ -546,9 +552,9 @@ public abstract class Menu implements InventoryHolder {
      * Stops auto-refresh task for this menu.
      */
     private void stopAutoRefresh() {
-        if (this.taskId != null) {
-            Bukkit.getScheduler().cancelTask(this.taskId);
-            this.taskId = null;
+        if (this.refreshTask != null) {
+            this.refreshTask.cancel();
+            this.refreshTask = null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,292 @@
+package me.sunmc.tools.profiler;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each phase of the plugin startup takes.
+ * <p>
+ * Every measurement is an {@link Entry} of a phase, such as {@link #CONFIG_LOAD}, and a name within that phase,
+ * such as the configuration file id. Once startup is {@link #finish() finished} no further entries are recorded.
+ * <p>
+ * Measurements of the individual items of a phase add up to the phase total. Measurements wrapping other measurements,
+ * such as the time spent waiting for parallel work, are recorded as {@link #recordWallClock(String, String, long) wall clock}
+ * entries instead, which are reported separately so that no time is counted twice.
+ * The result can be logged as a report of the slowest entries and written as JSON to track regressions between releases.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * StartupProfiler profiler = plugin.getStartupProfiler();
+ * Database database = profiler.time("database", "connect", () -> Database.connect(settings));
+ * }</pre>
+ */
+public class StartupProfiler {
+
+    public static final @NonNull String CLASSPATH_SCAN = "classpath-scan";
+    public static final @NonNull String REGISTRY_INDEX = "registry-index";
+    public static final @NonNull String CONFIG_LOAD = "config-load";
+    public static final @NonNull String INSTANTIATION = "instantiation";
+    public static final @NonNull String AUTO_REGISTERING = "auto-registering";
+    public static final @NonNull String COMPONENT_ENABLE = "component-enable";
+    public static final @NonNull String COMMAND_REGISTRATION = "command-registration";
+    public static final @NonNull String LISTENER_REGISTRATION = "listener-registration";
+    public static final @NonNull String SCHEDULER_HANDLER_START = "scheduler-handler-start";
+    public static final @NonNull String STARTUP = "startup";
+
+    private final @NonNull Queue<Entry> entries;
+    private final long createdAt;
+    private volatile boolean finished = false;
+    private long finishedAt;
+
+    public StartupProfiler() {
+        this.entries = new ConcurrentLinkedQueue<>();
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Records a measurement, unless startup has already finished.
+     *
+     * @param phase         The startup phase.
+     * @param name          The name of the measured item within the phase.
+     * @param durationNanos The measured duration in nanoseconds.
+     */
+    public void record(@NonNull String phase, @NonNull String name, long durationNanos) {
+        if (!this.finished) {
+            this.entries.add(new Entry(phase, name, durationNanos, false));
+        }
+    }
+
+    /**
+     * Records the wall clock time of a measurement containing other measurements, unless startup has already finished.
+     * Wall clock entries are not included in the {@link #getPhaseTotals() phase totals}.
+     *
+     * @param phase         The startup phase.
+     * @param name          The name of the measured span within the phase.
+     * @param durationNanos The measured duration in nanoseconds.
+     */
+    public void recordWallClock(@NonNull String phase, @NonNull String name, long durationNanos) {
+        if (!this.finished) {
+            this.entries.add(new Entry(phase, name, durationNanos, true));
+        }
+    }
+
+    /**
+     * Runs a task containing other measurements and records its {@link #recordWallClock(String, String, long) wall clock} time.
+     *
+     * @param phase The startup phase.
+     * @param name  The name of the measured span within the phase.
+     * @param task  The task to run.
+     */
+    public void timeWallClock(@NonNull String phase, @NonNull String name, @NonNull Runnable task) {
+        final long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            this.recordWallClock(phase, name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs and measures a task.
+     *
+     * @param phase The startup phase.
+     * @param name  The name of the measured item within the phase.
+     * @param task  The task to run.
+     */
+    public void time(@NonNull String phase, @NonNull String name, @NonNull Runnable task) {
+        final long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            this.record(phase, name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs and measures a task returning a value.
+     *
+     * @param phase The startup phase.
+     * @param name  The name of the measured item within the phase.
+     * @param task  The task to run.
+     * @return The value returned by the task.
+     */
+    public <T> T time(@NonNull String phase, @NonNull String name, @NonNull Supplier<T> task) {
+        final long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            this.record(phase, name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Marks startup as finished. Measurements recorded afterwards are ignored.
+     */
+    public void finish() {
+        this.finishedAt = System.currentTimeMillis();
+        this.finished = true;
+    }
+
+    /**
+     * @return If startup has been marked as finished.
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * @return All recorded entries in the order they were recorded.
+     */
+    public @NonNull List<Entry> getEntries() {
+        return List.copyOf(this.entries);
+    }
+
+    /**
+     * @return The total recorded time per phase in nanoseconds, in the order the phases were first recorded.
+     * {@link Entry#wallClock() Wall clock} entries are excluded.
+     */
+    public @NonNull Map<String, Long> getPhaseTotals() {
+        final Map<String, Long> totals = new LinkedHashMap<>();
+        for (Entry entry : this.entries) {
+            if (!entry.wallClock()) {
+                totals.merge(entry.phase(), entry.durationNanos(), Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return The {@link Entry#wallClock() wall clock} entries in the order they were recorded.
+     */
+    public @NonNull List<Entry> getWallClockEntries() {
+        return this.entries.stream()
+                .filter(Entry::wallClock)
+                .toList();
+    }
+
+    /**
+     * @param limit Maximum number of entries to return.
+     * @return The slowest recorded entries, slowest first. {@link Entry#wallClock() Wall clock} entries are excluded.
+     */
+    public @NonNull List<Entry> getSlowest(int limit) {
+        return this.entries.stream()
+                .filter(entry -> !entry.wallClock())
+                .sorted(Comparator.comparingLong(Entry::durationNanos).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    /**
+     * Logs the total time per phase and the slowest recorded entries.
+     *
+     * @param logger The logger to log the report with.
+     * @param limit  How many of the slowest entries to log.
+     */
+    public void logReport(@NonNull Logger logger, int limit) {
+        logger.info("#-----------------------------------#");
+        logger.info("       Startup Profiler Report       ");
+        this.getPhaseTotals().forEach((phase, total) -> logger.info("{}: {}ms", phase, formatMillis(total)));
+        for (Entry entry : this.getWallClockEntries()) {
+            logger.info("{} {} (wall clock): {}ms", entry.phase(), entry.name(), formatMillis(entry.durationNanos()));
+        }
+        logger.info("                                     ");
+        logger.info("Slowest {}:", limit);
+
+        int position = 1;
+        for (Entry entry : this.getSlowest(limit)) {
+            logger.info("{}. [{}] {}: {}ms", position++, entry.phase(), entry.name(), formatMillis(entry.durationNanos()));
+        }
+        logger.info("#-----------------------------------#");
+    }
+
+    /**
+     * Writes the recorded data as JSON.
+     *
+     * @param file             The file to write to.
+     * @param pluginIdentifier Identifier of the profiled plugin.
+     * @param pluginVersion    Version of the profiled plugin.
+     * @throws IOException If the file could not be written.
+     */
+    public void writeJson(@NonNull Path file, @NonNull String pluginIdentifier, @NonNull String pluginVersion) throws IOException {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"plugin\": ").append(quote(pluginIdentifier)).append(",\n");
+        json.append("  \"version\": ").append(quote(pluginVersion)).append(",\n");
+        json.append("  \"startedAt\": ").append(this.createdAt).append(",\n");
+        json.append("  \"finishedAt\": ").append(this.finishedAt).append(",\n");
+        json.append("  \"phases\": {");
+
+        final Iterator<Map.Entry<String, Long>> phases = this.getPhaseTotals().entrySet().iterator();
+        while (phases.hasNext()) {
+            Map.Entry<String, Long> phase = phases.next();
+            json.append("\n    ").append(quote(phase.getKey())).append(": ").append(phase.getValue());
+            json.append(phases.hasNext() ? "," : "\n  ");
+        }
+        json.append("},\n");
+        json.append("  \"entries\": [");
+
+        final Iterator<Entry> entries = this.entries.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            json.append("\n    {\"phase\": ").append(quote(entry.phase()))
+                    .append(", \"name\": ").append(quote(entry.name()))
+                    .append(", \"nanos\": ").append(entry.durationNanos())
+                    .append(", \"wallClock\": ").append(entry.wallClock())
+                    .append('}');
+            json.append(entries.hasNext() ? "," : "\n  ");
+        }
+        json.append("]\n}\n");
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, json.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static @NonNull String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static @NonNull String quote(@NonNull String value) {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (char character : value.toCharArray()) {
+            switch (character) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (character < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        builder.append(character);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * A single startup measurement.
+     *
+     * @param phase         The startup phase.
+     * @param name          The name of the measured item within the phase.
+     * @param durationNanos The measured duration in nanoseconds.
+     * @param wallClock     If the measurement contains other measurements and is excluded from the phase totals.
+     */
+    public record Entry(@NonNull String phase, @NonNull String name, long durationNanos, boolean wallClock) {
+
+        public Entry(@NonNull String phase, @NonNull String name, long durationNanos) {
+            this(phase, name, durationNanos, false);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package me.sunmc.tools.registry;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.component.DependencyComponent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the constructor dependency graph of a set of classes and instantiates them in dependency order.
+ * <p>
+ * Every class is instantiated as soon as all of its dependencies are, so independent branches of the graph can be
+ * constructed concurrently on the provided worker executor. Classes annotated with {@link MainThreadInstantiation},
+ * or all classes when no worker executor is provided, are constructed on the thread calling {@link #instantiateAll(Collection, Predicate)}.
+ */
+final class DependencyResolver {
+
+    private final @NonNull RegistryFactory registryFactory;
+    private final @Nullable Executor worker;
+    private final @NonNull BlockingQueue<Runnable> callerTasks;
+    private final @NonNull Map<Class<?>, Class<?>> failedRoots;
+    private final @NonNull Map<Class<?>, Throwable> failureCauses;
+
+    /**
+     * @param registryFactory The factory used to plan and create the instances.
+     * @param worker          The executor for classes that may be constructed off the calling thread,
+     *                        or {@code null} to construct everything on the calling thread.
+     */
+    DependencyResolver(@NonNull RegistryFactory registryFactory, @Nullable Executor worker) {
+        this.registryFactory = registryFactory;
+        this.worker = worker;
+        this.callerTasks = new LinkedBlockingQueue<>();
+        this.failedRoots = new ConcurrentHashMap<>();
+        this.failureCauses = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Instantiates and registers all provided classes that are not registered yet.
+     * Blocks until every class has been processed.
+     *
+     * @param classes  The classes to instantiate.
+     * @param excluded Tests if a class should be left for later instantiation. Excluded classes are still
+     *                 instantiated when a class that is not excluded depends on them.
+     */
+    void instantiateAll(@NonNull Collection<Class<?>> classes, @NonNull Predicate<Class<?>> excluded) {
+        final Set<Class<?>> candidates = classes.stream()
+                .filter(clazz -> !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers()))
+                .filter(clazz -> !this.registryFactory.isInstantiated(clazz))
+                .sorted(Comparator.comparing(Class::getName))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        final Map<Class<?>, List<Class<?>>> graph = this.buildGraph(candidates);
+        this.retainRequired(graph, excluded);
+        final List<Class<?>> order = this.sortAndRemoveCycles(graph);
+        final Map<Class<?>, CompletableFuture<Boolean>> futures = new HashMap<>();
+
+        for (Class<?> clazz : order) {
+            final List<Class<?>> dependencies = graph.get(clazz);
+            final CompletableFuture<?>[] dependencyFutures = dependencies.stream()
+                    .map(futures::get)
+                    .filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new);
+
+            Executor executor = this.worker == null || clazz.isAnnotationPresent(MainThreadInstantiation.class)
+                    ? this.callerTasks::add
+                    : this.worker;
+
+            // Runs even if a dependency failed, so the skipped class is reported instead of silently left out
+            futures.put(clazz, CompletableFuture.allOf(dependencyFutures)
+                    .handleAsync((ignored, throwable) -> this.instantiate(clazz, dependencies), executor));
+        }
+
+        final CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new));
+        this.runCallerTasksUntil(all);
+    }
+
+    /**
+     * Selects the constructor of every candidate, treating other candidates as resolvable, and collects the
+     * candidates each one depends on through its constructor or {@link DependencyComponent}. Candidates without a usable constructor are reported and left out.
+     */
+    private @NonNull Map<Class<?>, List<Class<?>>> buildGraph(@NonNull Set<Class<?>> candidates) {
+        final Map<Class<?>, List<Class<?>>> graph = new LinkedHashMap<>();
+
+        for (Class<?> clazz : candidates) {
+            try {
+                InstantiationPlan plan = this.registryFactory.prepareInstantiationPlan(clazz,
+                        dependency -> candidates.contains(dependency) || this.registryFactory.isInstantiated(dependency));
+
+                final Set<Class<?>> dependencies = new LinkedHashSet<>(plan.getDependencies());
+                if (clazz.isAnnotationPresent(DependencyComponent.class)) {
+                    dependencies.addAll(Arrays.asList(clazz.getAnnotation(DependencyComponent.class).value()));
+                }
+
+                graph.put(clazz, dependencies.stream()
+                        .filter(candidates::contains)
+                        .toList());
+            } catch (RegistryInstantiationException exception) {
+                Tools.LOG.error("Registry Factory could not create an instance for class {}: {}",
+                        clazz.getSimpleName(), exception.getMessage());
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Removes the excluded classes from the graph, unless a class that is not excluded depends on them.
+     */
+    private void retainRequired(@NonNull Map<Class<?>, List<Class<?>>> graph, @NonNull Predicate<Class<?>> excluded) {
+        final Set<Class<?>> required = new HashSet<>();
+        final Deque<Class<?>> queue = new ArrayDeque<>();
+
+        graph.keySet().stream()
+                .filter(clazz -> !excluded.test(clazz))
+                .forEach(queue::add);
+
+        while (!queue.isEmpty()) {
+            Class<?> clazz = queue.poll();
+            if (required.add(clazz)) {
+                queue.addAll(graph.getOrDefault(clazz, List.of()));
+            }
+        }
+
+        graph.keySet().retainAll(required);
+    }
+
+    /**
+     * Orders the graph so that every class comes after its dependencies.
+     * Classes that are part of a dependency cycle are reported with the full cycle path and left out of the order,
+     * classes depending on them are skipped when instantiating.
+     */
+    private @NonNull List<Class<?>> sortAndRemoveCycles(@NonNull Map<Class<?>, List<Class<?>>> graph) {
+        final List<Class<?>> order = new ArrayList<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        final Set<Class<?>> cyclic = new HashSet<>();
+        final Deque<Class<?>> path = new ArrayDeque<>();
+
+        for (Class<?> clazz : graph.keySet()) {
+            this.visit(clazz, graph, visited, cyclic, path, order);
+        }
+
+        order.removeIf(cyclic::contains);
+        return order;
+    }
+
+    private void visit(@NonNull Class<?> clazz, @NonNull Map<Class<?>, List<Class<?>>> graph,
+                       @NonNull Set<Class<?>> visited, @NonNull Set<Class<?>> cyclic,
+                       @NonNull Deque<Class<?>> path, @NonNull List<Class<?>> order) {
+        if (path.contains(clazz)) {
+            final List<Class<?>> cycle = new ArrayList<>();
+            final Iterator<Class<?>> iterator = path.descendingIterator();
+            boolean inCycle = false;
+
+            while (iterator.hasNext()) {
+                Class<?> element = iterator.next();
+                inCycle |= element.equals(clazz);
+                if (inCycle) {
+                    cycle.add(element);
+                }
+            }
+            cycle.add(clazz);
+            cyclic.addAll(cycle);
+
+            Tools.LOG.error("Registry Factory found a constructor dependency cycle: {}", cycle.stream()
+                    .map(Class::getSimpleName)
+                    .collect(Collectors.joining(" -> ")));
+            return;
+        }
+
+        if (!visited.add(clazz)) {
+            return;
+        }
+
+        path.push(clazz);
+        for (Class<?> dependency : graph.get(clazz)) {
+            if (graph.containsKey(dependency)) {
+                this.visit(dependency, graph, visited, cyclic, path, order);
+            }
+        }
+        path.pop();
+
+        order.add(clazz);
+    }
+
+    /**
+     * Instantiates a class once all of its dependencies have been processed. A class is skipped if one of its dependencies
+     * could not be created, which is logged together with the class that failed first.
+     *
+     * @return If an instance is registered for the class afterwards.
+     */
+    private boolean instantiate(@NonNull Class<?> clazz, @NonNull List<Class<?>> dependencies) {
+        for (Class<?> dependency : dependencies) {
+            if (!this.registryFactory.isInstantiated(dependency)) {
+                final Class<?> root = this.failedRoots.getOrDefault(dependency, dependency);
+                final Throwable cause = this.failureCauses.get(root);
+                this.failedRoots.put(clazz, root);
+
+                Tools.LOG.error("Registry Factory skipped class {} because its dependency {} could not be created, root cause: {}",
+                        clazz.getSimpleName(), dependency.getSimpleName(), cause == null
+                                ? root.getSimpleName() + " could not be created"
+                                : root.getSimpleName() + " failed with " + cause);
+                return false;
+            }
+        }
+
+        try {
+            if (this.registryFactory.createEffectiveInstance(clazz) != null) {
+                return true;
+            }
+        } catch (RuntimeException | LinkageError exception) {
+            this.failureCauses.put(clazz, exception);
+            Tools.LOG.error("Registry Factory could not create an instance for class {}", clazz.getSimpleName(), exception);
+        }
+
+        this.failedRoots.put(clazz, clazz);
+        return false;
+    }
+
+    /**
+     * Runs the tasks that must execute on the calling thread until the provided future completes.
+     * The calling thread blocks on the queue of its tasks, and is woken up by an empty task once the future completes.
+     */
+    private void runCallerTasksUntil(@NonNull CompletableFuture<?> future) {
+        future.whenComplete((result, throwable) -> this.callerTasks.add(() -> {
+        }));
+
+        try {
+            while (!future.isDone()) {
+                Runnable task = this.callerTasks.poll(1, TimeUnit.SECONDS);
+                if (task != null) {
+                    task.run();
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            Tools.LOG.error("Interrupted while waiting for auto registered classes to be instantiated", exception);
+        }
+
+        Runnable task;
+        while ((task = this.callerTasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
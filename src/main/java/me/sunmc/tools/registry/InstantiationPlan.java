@@ -0,0 +1,135 @@
+package me.sunmc.tools.registry;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * A resolved plan for instantiating a class through {@link RegistryFactory}.
+ * <p>
+ * The constructor is selected once and compiled into a {@link MethodHandle}. Each parameter is either the plugin main
+ * instance or a dependency that is looked up in the registry when the plan is invoked.
+ */
+public final class InstantiationPlan {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final @NonNull MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final @NonNull Class<?> type;
+    private final @NonNull Constructor<?> constructor;
+    private final @NonNull MethodHandle factory;
+    private final @NonNull Class<?>[] dependencies;
+
+    private InstantiationPlan(@NonNull Class<?> type, @NonNull Constructor<?> constructor,
+                              @NonNull MethodHandle factory, @NonNull Class<?>[] dependencies) {
+        this.type = type;
+        this.constructor = constructor;
+        this.factory = factory;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Compiles a plan for the provided constructor.
+     *
+     * @param type         The class the plan instantiates.
+     * @param constructor  The selected constructor.
+     * @param dependencies The registry type for each parameter, or {@code null} for parameters receiving the main instance.
+     * @return The compiled plan.
+     * @throws IllegalAccessException If the constructor cannot be accessed.
+     */
+    static @NonNull InstantiationPlan compile(@NonNull Class<?> type, @NonNull Constructor<?> constructor,
+                                              @NonNull Class<?>[] dependencies) throws IllegalAccessException {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (IllegalAccessException exception) {
+            // Public constructors of non-public classes need the access check suppressed
+            constructor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(constructor);
+        }
+
+        MethodHandle factory = handle
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(FACTORY_TYPE);
+        return new InstantiationPlan(type, constructor, factory, dependencies);
+    }
+
+    /**
+     * Creates a new instance by resolving the parameters and invoking the compiled constructor.
+     *
+     * @param registryFactory The factory to resolve dependencies from.
+     * @param mainInstance    The plugin main instance.
+     * @return The created instance.
+     * @throws RegistryInstantiationException If a dependency is missing or the constructor throws.
+     */
+    @NonNull Object instantiate(@NonNull RegistryFactory registryFactory, @NonNull Object mainInstance) {
+        final Object[] arguments = new Object[this.dependencies.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            Class<?> dependency = this.dependencies[i];
+            if (dependency == null) {
+                arguments[i] = mainInstance;
+                continue;
+            }
+
+            arguments[i] = registryFactory.getClassInstance(dependency);
+            if (arguments[i] == null) {
+                throw new RegistryInstantiationException(this.type, "Dependency " + dependency.getName()
+                        + " of constructor " + this.describe() + " is no longer registered.");
+            }
+        }
+
+        try {
+            return (Object) this.factory.invokeExact(arguments);
+        } catch (Throwable throwable) {
+            throw new RegistryInstantiationException(this.type, "Constructor " + this.describe() + " threw an exception.", throwable);
+        }
+    }
+
+    /**
+     * @return The class this plan instantiates.
+     */
+    public @NonNull Class<?> getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The constructor selected for this plan.
+     */
+    public @NonNull Constructor<?> getConstructor() {
+        return this.constructor;
+    }
+
+    /**
+     * @return The registry types this plan depends on, excluding parameters receiving the main instance.
+     */
+    public @NonNull List<Class<?>> getDependencies() {
+        return Arrays.stream(this.dependencies)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * @return A readable signature of the selected constructor.
+     */
+    public @NonNull String describe() {
+        return describe(this.constructor);
+    }
+
+    /**
+     * @param constructor The constructor to describe.
+     * @return A readable signature of the constructor, for example {@code GameManager(MyPlugin, ArenaManager)}.
+     */
+    static @NonNull String describe(@NonNull Constructor<?> constructor) {
+        return constructor.getDeclaringClass().getSimpleName() + Arrays.stream(constructor.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+}
@@ -0,0 +1,18 @@
+package me.sunmc.tools.registry;
+
+/**
+ * Breakdown of the time {@link RegistryFactory} spent creating an instance, recorded when performance tracking is enabled.
+ *
+ * @param resolutionNanos   Time spent selecting the constructor and compiling the {@link InstantiationPlan}.
+ *                          This is close to zero when a cached plan was reused.
+ * @param constructionNanos Time spent resolving the arguments and running the constructor.
+ */
+public record InstantiationTiming(long resolutionNanos, long constructionNanos) {
+
+    /**
+     * @return The total instantiation time in nanoseconds.
+     */
+    public long totalNanos() {
+        return this.resolutionNanos + this.constructionNanos;
+    }
+}
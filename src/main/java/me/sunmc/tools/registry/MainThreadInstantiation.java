@@ -0,0 +1,18 @@
+package me.sunmc.tools.registry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an auto registered class whose constructor must run on the main server thread, for example because it
+ * touches the Bukkit API.
+ * <p>
+ * Only relevant when {@link RegistryFactory#setParallelInstantiation(boolean) parallel instantiation} is enabled,
+ * otherwise every class is constructed on the main thread.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MainThreadInstantiation {
+}
@@ -1,25 +1,31 @@
 package me.sunmc.tools.registry;
 
 import me.sunmc.tools.Tools;
+import me.sunmc.tools.profiler.StartupProfiler;
 import me.sunmc.tools.registry.component.AutoRegisteringFeature;
+import me.sunmc.tools.registry.index.AutoRegisterIndex;
 import me.sunmc.tools.utils.java.SinglePointInitiator;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Enhanced factory for instantiating classes and registering their instances.
  *
  * <p>Features:
- * - Automatic class discovery via reflection
- * - Constructor dependency injection
+ * - Automatic class discovery via a compile-time index, with a classpath scan as fallback
+ * - Constructor dependency injection with recursive dependency resolution
+ * - Optional parallel instantiation of independent dependency branches
  * - Singleton pattern support
  * - Lazy initialization
  * - Thread-safe instance caching
@@ -31,24 +37,75 @@ import java.util.stream.Collectors;
  */
 public class RegistryFactory extends SinglePointInitiator {
 
-    private final @NonNull Reflections reflections;
+    private final @Nullable AutoRegisterIndex index;
     private final @NonNull Map<Class<?>, Object> registry;
     private final @NonNull Map<String, Object> namedRegistry;
-    private final @NonNull Object mainClassInstance;
+    private final @NonNull Map<String, Object> classNameRegistry;
+    private final @NonNull Tools mainClassInstance;
     private final @NonNull Class<?> mainClass;
     private final @NonNull Set<AutoRegisteringFeature> autoRegisteringComponents;
     private final @NonNull Map<Class<?>, Long> instantiationTimes;
+    private final @NonNull Map<Class<?>, InstantiationTiming> instantiationTimings;
+    private final @NonNull Map<Class<?>, InstantiationPlan> instantiationPlans;
+    private final @NonNull Map<Class<?>, InstantiationPlan> plannedInstantiations;
+    private final @NonNull List<Predicate<Class<?>>> instantiationExclusions;
 
+    private volatile @Nullable Reflections reflections;
+    private volatile @Nullable Map<Class<?>, Set<Class<?>>> registryTypeIndex;
     private boolean trackPerformance = false;
+    private boolean parallelInstantiation = false;
 
-    public <T extends Tools> RegistryFactory(@NonNull Reflections reflections, @NonNull T mainClassInstance) {
-        this.reflections = reflections;
+    public <T extends Tools> RegistryFactory(@NonNull T mainClassInstance) {
         this.registry = new ConcurrentHashMap<>();
         this.namedRegistry = new ConcurrentHashMap<>();
+        this.classNameRegistry = new ConcurrentHashMap<>();
         this.mainClassInstance = mainClassInstance;
         this.mainClass = mainClassInstance.getClass();
         this.autoRegisteringComponents = new LinkedHashSet<>();
         this.instantiationTimes = new ConcurrentHashMap<>();
+        this.instantiationTimings = new ConcurrentHashMap<>();
+        this.instantiationPlans = new ConcurrentHashMap<>();
+        this.plannedInstantiations = new ConcurrentHashMap<>();
+        this.instantiationExclusions = new ArrayList<>();
+        this.index = mainClassInstance.getStartupProfiler().time(StartupProfiler.REGISTRY_INDEX, "load-index",
+                () -> AutoRegisterIndex.load(this.mainClass.getClassLoader()));
+
+        if (this.index == null) {
+            Tools.LOG.info("No auto register index found, falling back to classpath scanning.");
+        }
+    }
+
+    /**
+     * Gets the {@link Reflections} instance used for classpath scanning, scanning the classpath on first access.
+     * <p>
+     * When an {@link AutoRegisterIndex} is present the framework itself never calls this, so the scan is only paid for
+     * by plugins that use reflection lookups not covered by the index.
+     *
+     * @return The {@link Reflections} instance for the library and the plugin package.
+     */
+    public @NonNull Reflections getReflections() {
+        Reflections reflections = this.reflections;
+        if (reflections == null) {
+            synchronized (this) {
+                reflections = this.reflections;
+                if (reflections == null) {
+                    reflections = this.mainClassInstance.getStartupProfiler().time(StartupProfiler.CLASSPATH_SCAN, "reflections",
+                            () -> new Reflections(ConfigurationBuilder.build().forPackages(
+                                    "me.sunmc.tools",
+                                    this.mainClass.getPackageName()
+                            )));
+                    this.reflections = reflections;
+                }
+            }
+        }
+        return reflections;
+    }
+
+    /**
+     * @return The compile-time {@link AutoRegisterIndex}, or {@code null} if none was found and classpath scanning is used.
+     */
+    public @Nullable AutoRegisterIndex getIndex() {
+        return this.index;
     }
 
     /**
@@ -69,6 +126,8 @@ public class RegistryFactory extends SinglePointInitiator {
     /**
      * Creates a new instance by initializing the constructor of the provided class.
      * Supports multiple constructor types and automatic dependency resolution.
+     * <p>
+     * The constructor is selected once per class and cached as an {@link InstantiationPlan} once it created an instance.
      *
      * @param clazz The {@link Class} to create an instance of.
      * @return The created instance.
@@ -85,46 +144,42 @@ public class RegistryFactory extends SinglePointInitiator {
         }
 
         final String displayName = clazz.getSimpleName() + " (" + clazz.getPackageName() + ")";
-        long startTime = this.trackPerformance ? System.nanoTime() : 0;
+        final StartupProfiler profiler = this.mainClassInstance.getStartupProfiler();
+        final boolean measure = this.trackPerformance || !profiler.isFinished();
+        long startTime = measure ? System.nanoTime() : 0;
 
         try {
-            Constructor<?>[] constructors = clazz.getConstructors();
-            if (constructors.length == 0) {
-                throw new NoSuchMethodException("Class " + displayName + " has no public constructor.");
-            }
-
-            Object instance = null;
-
-            // Try to find and use the best matching constructor
-            for (Constructor<?> constructor : constructors) {
-                try {
-                    instance = this.tryCreateInstance(constructor);
-                    if (instance != null) {
-                        break;
-                    }
-                } catch (Exception e) {
-                    // Try next constructor
-                    continue;
+            InstantiationPlan plan = this.getInstantiationPlan(clazz);
+            long resolvedTime = measure ? System.nanoTime() : 0;
+
+            Object instance = plan.instantiate(this, this.mainClassInstance);
+            this.instantiationPlans.put(clazz, plan);
+            this.plannedInstantiations.remove(clazz);
+
+            if (measure) {
+                long constructedTime = System.nanoTime();
+                InstantiationTiming timing = new InstantiationTiming(resolvedTime - startTime, constructedTime - resolvedTime);
+                profiler.record(StartupProfiler.INSTANTIATION, clazz.getName(), timing.totalNanos());
+
+                // Track performance if enabled
+                if (this.trackPerformance) {
+                    this.instantiationTimings.put(clazz, timing);
+                    this.instantiationTimes.put(clazz, timing.totalNanos());
                 }
             }
 
-            if (instance == null) {
-                throw new RuntimeException("No suitable constructor found for " + displayName);
-            }
-
             // Register instance
             if (this.registry.putIfAbsent(clazz, instance) != null) {
                 throw new UnsupportedOperationException("Duplicate class registration of class " + displayName + ".");
             }
-
-            // Track performance if enabled
-            if (this.trackPerformance) {
-                long duration = System.nanoTime() - startTime;
-                this.instantiationTimes.put(clazz, duration);
-            }
+            this.classNameRegistry.put(clazz.getName(), instance);
 
             return instance;
 
+        } catch (RegistryInstantiationException exception) {
+            Tools.LOG.error("Registry Factory could not create an instance for class {}: {}", clazz.getSimpleName(),
+                    exception.getMessage(), exception.getCause());
+            return null;
         } catch (Exception exception) {
             Tools.LOG.error("Registry Factory could not create an instance for class {}", clazz.getSimpleName(), exception);
             return null;
@@ -132,47 +187,88 @@ public class RegistryFactory extends SinglePointInitiator {
     }
 
     /**
-     * Tries to create an instance using the provided constructor.
+     * Gets the {@link InstantiationPlan} for a class. A cached or planned plan is only used if all of its dependencies are
+     * currently registered, otherwise it is dropped and the constructor is selected again from the registered classes,
+     * so a dependency that failed or was excluded makes the class fall back to another usable constructor.
+     *
+     * @param clazz The class to get the plan for.
+     * @return The instantiation plan.
+     * @throws RegistryInstantiationException If none of the public constructors can be used.
      */
-    private @Nullable Object tryCreateInstance(@NonNull Constructor<?> constructor) throws Exception {
-        int paramCount = constructor.getParameterCount();
+    public @NonNull InstantiationPlan getInstantiationPlan(@NonNull Class<?> clazz) {
+        InstantiationPlan plan = this.instantiationPlans.get(clazz);
+        if (plan != null && this.isResolvable(plan)) {
+            return plan;
+        }
 
-        if (paramCount == 0) {
-            // No-arg constructor
-            return constructor.newInstance();
-        } else if (paramCount == 1) {
-            Class<?> paramType = constructor.getParameterTypes()[0];
+        plan = this.plannedInstantiations.get(clazz);
+        if (plan != null && this.isResolvable(plan)) {
+            return plan;
+        }
 
-            // Plugin parameter
-            if (paramType.isAssignableFrom(this.mainClass)) {
-                return constructor.newInstance(this.mainClassInstance);
-            }
+        this.instantiationPlans.remove(clazz);
+        this.plannedInstantiations.remove(clazz);
+        return this.resolveInstantiationPlan(clazz, this.registry::containsKey);
+    }
 
-            // Try to resolve dependency
-            Object dependency = this.getClassInstance(paramType);
-            if (dependency != null) {
-                return constructor.newInstance(dependency);
+    private boolean isResolvable(@NonNull InstantiationPlan plan) {
+        for (Class<?> dependency : plan.getDependencies()) {
+            if (!this.registry.containsKey(dependency)) {
+                return false;
             }
-        } else {
-            // Multiple parameters - try to resolve all
+        }
+        return true;
+    }
+
+    /**
+     * Selects the first public constructor whose parameters can all be resolved and compiles it into a plan.
+     * Plugin parameters receive the main class instance, all other parameters must match the provided predicate.
+     * <p>
+     * The plan is only kept until the class is instantiated: it is cached once it created an instance, and replaced
+     * by {@link #getInstantiationPlan(Class)} if one of the assumed dependencies is not registered by then.
+     *
+     * @param clazz      The class to plan.
+     * @param resolvable Tests if a parameter type is, or will be, registered when the plan is invoked.
+     * @return The planned instantiation.
+     */
+    @NonNull InstantiationPlan prepareInstantiationPlan(@NonNull Class<?> clazz, @NonNull Predicate<Class<?>> resolvable) {
+        InstantiationPlan plan = this.resolveInstantiationPlan(clazz, resolvable);
+        this.plannedInstantiations.put(clazz, plan);
+        return plan;
+    }
+
+    private @NonNull InstantiationPlan resolveInstantiationPlan(@NonNull Class<?> clazz, @NonNull Predicate<Class<?>> resolvable) {
+        final List<String> rejections = new ArrayList<>();
+
+        for (Constructor<?> constructor : clazz.getConstructors()) {
             Class<?>[] paramTypes = constructor.getParameterTypes();
-            Object[] params = new Object[paramTypes.length];
+            Class<?>[] dependencies = new Class<?>[paramTypes.length];
+            String rejection = null;
 
             for (int i = 0; i < paramTypes.length; i++) {
                 if (paramTypes[i].isAssignableFrom(this.mainClass)) {
-                    params[i] = this.mainClassInstance;
-                } else {
-                    params[i] = this.getClassInstance(paramTypes[i]);
-                    if (params[i] == null) {
-                        return null; // Can't resolve all dependencies
-                    }
+                    continue;
+                }
+
+                if (!resolvable.test(paramTypes[i])) {
+                    rejection = "parameter " + (i + 1) + " of type " + paramTypes[i].getName() + " is not registered";
+                    break;
+                }
+                dependencies[i] = paramTypes[i];
+            }
+
+            if (rejection == null) {
+                try {
+                    return InstantiationPlan.compile(clazz, constructor, dependencies);
+                } catch (IllegalAccessException | RuntimeException exception) {
+                    rejection = "constructor is not accessible (" + exception.getMessage() + ")";
                 }
             }
 
-            return constructor.newInstance(params);
+            rejections.add(InstantiationPlan.describe(constructor) + ": " + rejection);
         }
 
-        return null;
+        throw RegistryInstantiationException.noSuitableConstructor(clazz, rejections);
     }
 
     /**
@@ -203,11 +299,7 @@ public class RegistryFactory extends SinglePointInitiator {
      * @return The instance, or null if not found.
      */
     public @Nullable Object getInstance(@NonNull String className) {
-        return this.registry.entrySet().stream()
-                .filter(entry -> entry.getKey().getName().equals(className))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(null);
+        return this.classNameRegistry.get(className);
     }
 
     /**
@@ -235,9 +327,57 @@ public class RegistryFactory extends SinglePointInitiator {
 
     /**
      * Executes the implementation of all {@link AutoRegisteringFeature} which instantiates all auto registering classes.
+     * <p>
+     * All classes annotated with {@link AutoRegister} are first instantiated in constructor dependency order,
+     * so the load order no longer decides if a class with constructor dependencies can be created.
      */
     public void executeAllAutoRegistering() {
-        this.autoRegisteringComponents.forEach(component -> component.executeAutoRegistering(this));
+        final StartupProfiler profiler = this.mainClassInstance.getStartupProfiler();
+        profiler.timeWallClock(StartupProfiler.INSTANTIATION, "dependency-resolution", this::instantiateAutoRegistered);
+        this.autoRegisteringComponents.forEach(component -> profiler.time(StartupProfiler.AUTO_REGISTERING,
+                component.getClass().getSimpleName(), () -> component.executeAutoRegistering(this)));
+    }
+
+    /**
+     * Instantiates every class annotated with {@link AutoRegister} that is not registered yet, resolving constructor
+     * dependencies between them recursively. Dependency cycles are reported with their full path.
+     * <p>
+     * With {@link #setParallelInstantiation(boolean) parallel instantiation} enabled, independent branches of the
+     * dependency graph are constructed concurrently on the asynchronous executor of the scheduler adapter.
+     * <p>
+     * Classes matching an {@link #addInstantiationExclusion(Predicate) exclusion} are skipped, unless another
+     * instantiated class depends on them.
+     */
+    public void instantiateAutoRegistered() {
+        final Executor worker = this.parallelInstantiation ? this.mainClassInstance.getSchedulerAdapter().async() : null;
+        final List<Class<?>> classes = this.getClassesWithAnnotation(AutoRegister.class)
+                .stream()
+                .filter(clazz -> clazz.isAnnotationPresent(AutoRegister.class))
+                .toList();
+        new DependencyResolver(this, worker).instantiateAll(classes,
+                clazz -> this.instantiationExclusions.stream().anyMatch(exclusion -> exclusion.test(clazz)));
+    }
+
+    /**
+     * Excludes auto registered classes from being instantiated by {@link #instantiateAutoRegistered()}, so their
+     * owning {@link AutoRegisteringFeature} can instantiate them later.
+     *
+     * @param exclusion Tests if a class should be excluded.
+     */
+    public void addInstantiationExclusion(@NonNull Predicate<Class<?>> exclusion) {
+        this.instantiationExclusions.add(exclusion);
+    }
+
+    /**
+     * Enables instantiating independent auto registered classes concurrently on the asynchronous executor.
+     * Classes annotated with {@link MainThreadInstantiation} are always constructed on the main thread.
+     * <p>
+     * Must be set before the plugin is enabled, for example in {@link Tools#onPreLoad()}.
+     *
+     * @param parallel True to enable, false to disable. By default, this is {@code false}.
+     */
+    public void setParallelInstantiation(boolean parallel) {
+        this.parallelInstantiation = parallel;
     }
 
     /**
@@ -268,6 +408,25 @@ public class RegistryFactory extends SinglePointInitiator {
         return new HashMap<>(this.instantiationTimes);
     }
 
+    /**
+     * Gets the resolution and construction time for a class (if performance tracking is enabled).
+     *
+     * @param clazz The class to get the instantiation timing for.
+     * @return The timing breakdown, or null if not tracked.
+     */
+    public @Nullable InstantiationTiming getInstantiationTiming(@NonNull Class<?> clazz) {
+        return this.instantiationTimings.get(clazz);
+    }
+
+    /**
+     * Gets all instantiation timing breakdowns.
+     *
+     * @return Map of class to its resolution and construction time.
+     */
+    public @NonNull Map<Class<?>, InstantiationTiming> getAllInstantiationTimings() {
+        return new HashMap<>(this.instantiationTimings);
+    }
+
     /**
      * @param clazz The class whose instance to get.
      * @return The instance of the provided {@param clazz}. Returns {@code null} if non is present.
@@ -305,18 +464,58 @@ public class RegistryFactory extends SinglePointInitiator {
     }
 
     /**
-     * Gets all classes annotated with {@link AutoRegister} and then
-     * filters out to only return the ones that matches the method parameter input class.
+     * Gets all classes annotated with {@link AutoRegister} that have the method parameter input class as registry type.
+     * <p>
+     * Lookups are served from an index that is built once on first use, classes are ordered by their name.
      *
      * @param registerClass The type of auto registered classes to return.
-     * @return Set of classes that are marked with {@link AutoRegister} and has the input class type.
+     * @return Unmodifiable set of classes that are marked with {@link AutoRegister} and has the input class type.
      */
     public @NonNull Set<Class<?>> getClassesWithRegistryType(@NonNull Class<?> registerClass) {
-        return this.reflections.getTypesAnnotatedWith(AutoRegister.class)
-                .stream()
-                .filter(foundClass -> Arrays.stream(foundClass.getAnnotation(AutoRegister.class).value()).toList().contains(registerClass))
-                .filter(foundClass -> registerClass.isAssignableFrom(foundClass) || foundClass.equals(registerClass))
-                .collect(Collectors.toSet());
+        return this.getRegistryTypeIndex().getOrDefault(registerClass, Collections.emptySet());
+    }
+
+    /**
+     * @return Index of registry type to the auto registered classes of that type, built on first access.
+     */
+    private @NonNull Map<Class<?>, Set<Class<?>>> getRegistryTypeIndex() {
+        Map<Class<?>, Set<Class<?>>> index = this.registryTypeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.registryTypeIndex;
+                if (index == null) {
+                    index = this.mainClassInstance.getStartupProfiler().time(StartupProfiler.REGISTRY_INDEX, "registry-types",
+                            this::buildRegistryTypeIndex);
+                    this.registryTypeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Groups all classes annotated with {@link AutoRegister} by each of their registry types in a single pass.
+     */
+    private @NonNull Map<Class<?>, Set<Class<?>>> buildRegistryTypeIndex() {
+        final List<Class<?>> annotatedClasses = new ArrayList<>(this.getTypesAnnotatedWithAutoRegister());
+        annotatedClasses.sort(Comparator.comparing(Class::getName));
+
+        final Map<Class<?>, Set<Class<?>>> index = new HashMap<>();
+        for (Class<?> foundClass : annotatedClasses) {
+            AutoRegister autoRegister = foundClass.getAnnotation(AutoRegister.class);
+            if (autoRegister == null) {
+                continue;
+            }
+
+            for (Class<?> registerClass : autoRegister.value()) {
+                if (registerClass.isAssignableFrom(foundClass)) {
+                    index.computeIfAbsent(registerClass, key -> new LinkedHashSet<>()).add(foundClass);
+                }
+            }
+        }
+
+        index.replaceAll((registerClass, classes) -> Collections.unmodifiableSet(classes));
+        return Collections.unmodifiableMap(index);
     }
 
     /**
@@ -332,7 +531,7 @@ public class RegistryFactory extends SinglePointInitiator {
                 .stream()
                 .filter(extendClass::isAssignableFrom)
                 .map(foundClass -> (Class<? extends T>) foundClass)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     /**
@@ -342,7 +541,20 @@ public class RegistryFactory extends SinglePointInitiator {
      * @return Set of classes that are annotated with the parameter {@code annotation}.
      */
     public @NonNull Set<Class<?>> getClassesWithAnnotation(@NonNull Class<? extends Annotation> annotation) {
-        return this.reflections.getTypesAnnotatedWith(annotation);
+        if (annotation == AutoRegister.class) {
+            return this.getTypesAnnotatedWithAutoRegister();
+        }
+        return this.getReflections().getTypesAnnotatedWith(annotation);
+    }
+
+    /**
+     * @return All classes annotated with {@link AutoRegister}, read from the index when available.
+     */
+    private @NonNull Set<Class<?>> getTypesAnnotatedWithAutoRegister() {
+        if (this.index != null) {
+            return this.index.getTypesAnnotatedWithAutoRegister();
+        }
+        return this.getReflections().getTypesAnnotatedWith(AutoRegister.class);
     }
 
     /**
@@ -367,7 +579,13 @@ public class RegistryFactory extends SinglePointInitiator {
      * @return Set of classes that implement the {@code interfaceClass}.
      */
     public <T> @NonNull Set<Class<? extends T>> getClassesImplementing(@NonNull Class<T> interfaceClass) {
-        return this.reflections.getSubTypesOf(interfaceClass);
+        if (this.index != null) {
+            Set<Class<? extends T>> indexed = this.index.getSubTypesOf(interfaceClass);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        return this.getReflections().getSubTypesOf(interfaceClass);
     }
 
     /**
@@ -388,7 +606,11 @@ public class RegistryFactory extends SinglePointInitiator {
     public void clearCache() {
         this.registry.clear();
         this.namedRegistry.clear();
+        this.classNameRegistry.clear();
         this.instantiationTimes.clear();
+        this.instantiationTimings.clear();
+        this.instantiationPlans.clear();
+        this.plannedInstantiations.clear();
         Tools.LOG.warn("Registry cache cleared");
     }
 }
\ No newline at end of file
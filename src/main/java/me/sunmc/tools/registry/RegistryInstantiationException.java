@@ -0,0 +1,68 @@
+package me.sunmc.tools.registry;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when {@link RegistryFactory} cannot create an instance of a class.
+ * <p>
+ * When no constructor could be used, {@link #getRejections()} holds the reason for each constructor that was tried.
+ */
+public class RegistryInstantiationException extends RuntimeException {
+
+    private final @NonNull Class<?> type;
+    private final @NonNull List<String> rejections;
+
+    public RegistryInstantiationException(@NonNull Class<?> type, @NonNull String message) {
+        this(type, message, (Throwable) null);
+    }
+
+    public RegistryInstantiationException(@NonNull Class<?> type, @NonNull String message, @Nullable Throwable cause) {
+        super(message, cause);
+        this.type = type;
+        this.rejections = Collections.emptyList();
+    }
+
+    private RegistryInstantiationException(@NonNull Class<?> type, @NonNull String message, @NonNull List<String> rejections) {
+        super(message);
+        this.type = type;
+        this.rejections = List.copyOf(rejections);
+    }
+
+    /**
+     * Creates an exception describing why none of the constructors of a class could be used.
+     *
+     * @param type       The class that could not be instantiated.
+     * @param rejections The reason for each rejected constructor.
+     * @return The created exception.
+     */
+    public static @NonNull RegistryInstantiationException noSuitableConstructor(@NonNull Class<?> type, @NonNull List<String> rejections) {
+        final StringBuilder message = new StringBuilder("No suitable constructor found for ")
+                .append(type.getName());
+
+        if (rejections.isEmpty()) {
+            message.append(": the class has no public constructor.");
+        } else {
+            message.append(':');
+            rejections.forEach(rejection -> message.append("\n  - ").append(rejection));
+        }
+        return new RegistryInstantiationException(type, message.toString(), rejections);
+    }
+
+    /**
+     * @return The class that could not be instantiated.
+     */
+    public @NonNull Class<?> getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The reason for each rejected constructor, empty if the failure was not caused by constructor selection.
+     */
+    public @NonNull List<String> getRejections() {
+        return this.rejections;
+    }
+}
@@ -0,0 +1,188 @@
+package me.sunmc.tools.registry.index;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.registry.AutoRegister;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compile-time generated index of auto registering classes, written by {@link AutoRegisterIndexProcessor}.
+ * <p>
+ * The index replaces the runtime classpath scan for the lookups the framework performs on startup:
+ * types annotated with {@link AutoRegister} and subtypes of the {@link #INDEXED_SUPERTYPES indexed supertypes}.
+ * <p>
+ * Every line of an index file has the format {@code <indexed type>:<binary class name>}, where the indexed type is either
+ * the fully qualified name of {@link AutoRegister} or one of the {@link #INDEXED_SUPERTYPES}.
+ */
+public final class AutoRegisterIndex {
+
+    /**
+     * Location of the index generated by {@link AutoRegisterIndexProcessor} for the plugin being compiled.
+     */
+    public static final @NonNull String INDEX_LOCATION = "META-INF/suntools/auto-register.index";
+
+    /**
+     * Location of the index shipped with the library itself, covering the built-in auto registering classes.
+     */
+    public static final @NonNull String CORE_INDEX_LOCATION = "META-INF/suntools/core.index";
+
+    /**
+     * Fully qualified names of the supertypes whose subtypes are written to the index.
+     */
+    public static final @NonNull List<String> INDEXED_SUPERTYPES = List.of(
+            "me.sunmc.tools.component.Component",
+            "org.bukkit.event.Listener",
+            "me.sunmc.tools.command.CommandFactory",
+            "me.sunmc.tools.scheduler.handler.AbstractSchedulerHandler",
+            "me.sunmc.tools.configuration.reload.ConfigReloadable"
+    );
+
+    private static final char SEPARATOR = ':';
+
+    private final @NonNull ClassLoader classLoader;
+    private final @NonNull Map<String, Set<String>> entries;
+    private final @NonNull Map<String, Set<Class<?>>> resolved;
+
+    private AutoRegisterIndex(@NonNull ClassLoader classLoader, @NonNull Map<String, Set<String>> entries) {
+        this.classLoader = classLoader;
+        this.entries = entries;
+        this.resolved = new HashMap<>();
+    }
+
+    /**
+     * Loads the generated index together with the library core index from the provided class loader.
+     *
+     * @param classLoader The {@link ClassLoader} of the plugin to load the index for.
+     * @return The loaded index, or {@code null} if no generated index is present and a classpath scan is required.
+     */
+    public static @Nullable AutoRegisterIndex load(@NonNull ClassLoader classLoader) {
+        final Map<String, Set<String>> entries = new LinkedHashMap<>();
+
+        try {
+            if (!readAll(classLoader, INDEX_LOCATION, entries)) {
+                return null;
+            }
+            readAll(classLoader, CORE_INDEX_LOCATION, entries);
+        } catch (IOException exception) {
+            Tools.LOG.warn("Could not read the auto register index, falling back to classpath scanning", exception);
+            return null;
+        }
+
+        return new AutoRegisterIndex(classLoader, entries);
+    }
+
+    /**
+     * Reads every resource with the provided name into the entry map.
+     *
+     * @return {@code true} if at least one resource was found.
+     */
+    private static boolean readAll(@NonNull ClassLoader classLoader, @NonNull String location,
+                                   @NonNull Map<String, Set<String>> entries) throws IOException {
+        boolean found = false;
+        Enumeration<URL> resources = classLoader.getResources(location);
+
+        while (resources.hasMoreElements()) {
+            found = true;
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+
+                    int separator = line.indexOf(SEPARATOR);
+                    if (separator <= 0 || separator == line.length() - 1) {
+                        continue;
+                    }
+
+                    entries.computeIfAbsent(line.substring(0, separator), key -> new LinkedHashSet<>())
+                            .add(line.substring(separator + 1));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Formats a single index line.
+     *
+     * @param indexedType Fully qualified name of the annotation or supertype.
+     * @param className   Binary name of the indexed class.
+     * @return The formatted line.
+     */
+    static @NonNull String formatEntry(@NonNull String indexedType, @NonNull String className) {
+        return indexedType + SEPARATOR + className;
+    }
+
+    /**
+     * @return All classes directly annotated with {@link AutoRegister}.
+     */
+    public @NonNull Set<Class<?>> getTypesAnnotatedWithAutoRegister() {
+        return this.resolve(AutoRegister.class.getName());
+    }
+
+    /**
+     * Gets all indexed subtypes of the provided type.
+     *
+     * @param type The supertype to look up.
+     * @return Set of subtypes, or {@code null} if the provided type is not covered by the index.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable Set<Class<? extends T>> getSubTypesOf(@NonNull Class<T> type) {
+        if (!this.isIndexed(type)) {
+            return null;
+        }
+
+        Set<Class<? extends T>> subTypes = new LinkedHashSet<>();
+        for (Class<?> clazz : this.resolve(type.getName())) {
+            subTypes.add((Class<? extends T>) clazz);
+        }
+        return subTypes;
+    }
+
+    /**
+     * @param type The type to check.
+     * @return If subtypes of the provided type are written to the index.
+     */
+    public boolean isIndexed(@NonNull Class<?> type) {
+        return INDEXED_SUPERTYPES.contains(type.getName());
+    }
+
+    /**
+     * @return The number of distinct classes referenced by this index.
+     */
+    public int size() {
+        Set<String> classes = new HashSet<>();
+        this.entries.values().forEach(classes::addAll);
+        return classes.size();
+    }
+
+    private synchronized @NonNull Set<Class<?>> resolve(@NonNull String indexedType) {
+        Set<Class<?>> cached = this.resolved.get(indexedType);
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (String className : this.entries.getOrDefault(indexedType, Collections.emptySet())) {
+            try {
+                classes.add(Class.forName(className, false, this.classLoader));
+            } catch (ClassNotFoundException | LinkageError exception) {
+                Tools.LOG.warn("Indexed class {} could not be loaded, skipping it", className, exception);
+            }
+        }
+
+        Set<Class<?>> result = Collections.unmodifiableSet(classes);
+        this.resolved.put(indexedType, result);
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package me.sunmc.tools.registry.index;
+
+import me.sunmc.tools.registry.AutoRegister;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor writing the {@link AutoRegisterIndex} of the compiled sources into
+ * {@link AutoRegisterIndex#INDEX_LOCATION}.
+ * <p>
+ * The processor is discovered automatically when the library is on the annotation processor path of the plugin.
+ * It does not claim any annotations, so other processors such as Lombok keep working as usual.
+ */
+public class AutoRegisterIndexProcessor extends AbstractProcessor {
+
+    private final @NonNull Set<String> lines = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.writeIndex();
+            return false;
+        }
+
+        final Types types = this.processingEnv.getTypeUtils();
+        final Map<String, TypeMirror> supertypes = new LinkedHashMap<>();
+
+        for (String name : AutoRegisterIndex.INDEXED_SUPERTYPES) {
+            TypeElement element = this.processingEnv.getElementUtils().getTypeElement(name);
+            if (element != null) {
+                supertypes.put(name, types.erasure(element.asType()));
+            }
+        }
+
+        for (Element element : roundEnv.getRootElements()) {
+            this.visit(element, types, supertypes);
+        }
+        return false;
+    }
+
+    private void visit(@NonNull Element element, @NonNull Types types, @NonNull Map<String, TypeMirror> supertypes) {
+        if (!(element instanceof TypeElement typeElement)) {
+            return;
+        }
+
+        final String qualifiedName = typeElement.getQualifiedName().toString();
+        final String binaryName = this.processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        final TypeMirror type = types.erasure(typeElement.asType());
+
+        for (AnnotationMirror mirror : typeElement.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(AutoRegister.class.getName())) {
+                this.lines.add(AutoRegisterIndex.formatEntry(AutoRegister.class.getName(), binaryName));
+            }
+        }
+
+        for (Map.Entry<String, TypeMirror> supertype : supertypes.entrySet()) {
+            if (!supertype.getKey().equals(qualifiedName) && types.isSubtype(type, supertype.getValue())) {
+                this.lines.add(AutoRegisterIndex.formatEntry(supertype.getKey(), binaryName));
+            }
+        }
+
+        for (Element enclosed : typeElement.getEnclosedElements()) {
+            this.visit(enclosed, types, supertypes);
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = this.processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", AutoRegisterIndex.INDEX_LOCATION);
+
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + this.getClass().getSimpleName() + ", do not edit.\n");
+                for (String line : this.lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException exception) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write auto register index: " + exception.getMessage());
+        }
+    }
+}
@@ -8,11 +8,17 @@ import me.sunmc.tools.utils.java.SinglePointInitiator;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of {@link SchedulerAdapter} using {@link ScheduledExecutorService}. Handles the underlying scheduler and worker instances.
+ * <p>
+ * In {@link AsyncExecutionMode#VIRTUAL} mode, {@link #async()} and {@link #io(String)} run every task on its own virtual thread,
+ * and each resource passed to {@link #io(String)} is limited to a number of concurrently running tasks with a semaphore.
+ * {@link #compute()} always uses the bounded worker pool. Code holding a monitor while blocking pins the carrier thread
+ * of a virtual thread, so drivers relying on {@code synchronized} benefit less from this mode.
  *
  * @see SchedulerAdapter for Javadocs on the implemented scheduler methods.
  */
@@ -20,10 +26,16 @@ public abstract class AbstractSchedulerAdapter extends SinglePointInitiator impl
 
     private static final @NonNull String WORKER_THREAD_PREFIX = "liam-tools-worker-";
     private static final @NonNull String SCHEDULER_THREAD_NAME = "liam-tools-scheduler";
+    private static final @NonNull String VIRTUAL_THREAD_PREFIX = "liam-tools-virtual-";
+    private static final int DEFAULT_RESOURCE_LIMIT = 16;
 
     private final @NonNull Logger logger;
     private final @NonNull ScheduledThreadPoolExecutor scheduler;
     private final @NonNull ForkJoinPool worker;
+    private final @NonNull ExecutorService virtual;
+    private final @NonNull Executor async;
+    private final @NonNull Map<String, ResourceLimit> resourceLimits;
+    private volatile @NonNull AsyncExecutionMode asyncMode;
 
     public AbstractSchedulerAdapter(@NonNull Tools plugin) {
         this.logger = LoggerUtil.createLoggerWithIdentifier(plugin, this);
@@ -41,17 +53,25 @@ public abstract class AbstractSchedulerAdapter extends SinglePointInitiator impl
                 new ExceptionHandler(this.logger),
                 false
         );
+        this.virtual = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name(VIRTUAL_THREAD_PREFIX, 0)
+                .uncaughtExceptionHandler(new ExceptionHandler(this.logger))
+                .factory());
+        this.resourceLimits = new ConcurrentHashMap<>();
+        this.asyncMode = plugin.getAsyncExecutionMode();
+        // Resolved per task, so changing the mode also applies to executors that were already handed out
+        this.async = runnable -> (this.asyncMode == AsyncExecutionMode.VIRTUAL ? this.virtual : this.worker).execute(runnable);
     }
 
     @Override
     public @NonNull SchedulerTask asyncLater(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
-        ScheduledFuture<?> future = this.scheduler.schedule(() -> this.worker.execute(task), delay, unit);
+        ScheduledFuture<?> future = this.scheduler.schedule(() -> this.async.execute(task), delay, unit);
         return () -> future.cancel(false);
     }
 
     @Override
     public @NonNull SchedulerTask asyncRepeating(@NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit unit) {
-        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> this.worker.execute(task), initialDelay, interval, unit);
+        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> this.async.execute(task), initialDelay, interval, unit);
         return () -> future.cancel(false);
     }
 
@@ -71,12 +91,16 @@ public abstract class AbstractSchedulerAdapter extends SinglePointInitiator impl
     @Override
     public void shutdownExecutor() {
         this.worker.shutdown();
+        this.virtual.shutdown();
 
         final String formattedWorkerName = WORKER_THREAD_PREFIX.substring(0, WORKER_THREAD_PREFIX.length() - 1);
         try {
             if (!this.worker.awaitTermination(1, TimeUnit.MINUTES)) {
                 this.logger.error("Timed out! Was waiting for worker '" + formattedWorkerName + "' to terminate.");
             }
+            if (!this.virtual.awaitTermination(1, TimeUnit.MINUTES)) {
+                this.logger.error("Timed out! Was waiting for virtual threads to terminate.");
+            }
         } catch (InterruptedException exception) {
             this.logger.error("Interrupted! Was waiting for worker '" + formattedWorkerName + "' to terminate.", exception);
         }
@@ -84,9 +108,71 @@ public abstract class AbstractSchedulerAdapter extends SinglePointInitiator impl
 
     @Override
     public @NonNull Executor async() {
+        return this.async;
+    }
+
+    @Override
+    public @NonNull Executor compute() {
         return this.worker;
     }
 
+    /**
+     * Gets an executor for blocking I/O towards a single resource. In {@link AsyncExecutionMode#VIRTUAL} mode, every task runs
+     * on its own virtual thread and waits for a permit of the resource first, see {@link #setResourceLimit(String, int)}.
+     * In {@link AsyncExecutionMode#POOLED} mode, tasks run on the worker pool without a limit.
+     *
+     * @param resource The name of the resource the tasks access.
+     * @return An asynchronous {@link Executor} instance for blocking I/O.
+     */
+    @Override
+    public @NonNull Executor io(@NonNull String resource) {
+        return runnable -> {
+            if (this.asyncMode != AsyncExecutionMode.VIRTUAL) {
+                this.worker.execute(runnable);
+                return;
+            }
+
+            final Semaphore permits = this.resourceLimits.computeIfAbsent(resource, key -> new ResourceLimit(DEFAULT_RESOURCE_LIMIT));
+            this.virtual.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    runnable.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        };
+    }
+
+    /**
+     * Sets how many tasks of a resource submitted to {@link #io(String)} may run at once, for example the size of a connection pool.
+     * The limit also applies to tasks that are already running or waiting: after lowering it, running tasks are finished,
+     * but no further task starts until fewer tasks than the new limit are running.
+     *
+     * @param resource The name of the resource.
+     * @param limit    The maximum number of concurrently running tasks. By default, this is {@code 16}.
+     */
+    public void setResourceLimit(@NonNull String resource, int limit) {
+        final int permits = Math.max(1, limit);
+        this.resourceLimits.computeIfAbsent(resource, key -> new ResourceLimit(permits)).resize(permits);
+    }
+
+    /**
+     * Sets how the {@link #async()} executor runs its tasks. Applies to tasks submitted from now on.
+     *
+     * @param asyncMode The execution mode.
+     */
+    public void setAsyncExecutionMode(@NonNull AsyncExecutionMode asyncMode) {
+        this.asyncMode = asyncMode;
+    }
+
+    /**
+     * @return How the {@link #async()} executor runs its tasks.
+     */
+    public @NonNull AsyncExecutionMode getAsyncExecutionMode() {
+        return this.asyncMode;
+    }
+
     /**
      * @return Instance of the {@link ScheduledThreadPoolExecutor} used in this implementation.
      */
@@ -116,6 +202,29 @@ public abstract class AbstractSchedulerAdapter extends SinglePointInitiator impl
         }
     }
 
+    /**
+     * Fair semaphore limiting the concurrently running tasks of a resource, which can be resized while permits are held.
+     */
+    private static final class ResourceLimit extends Semaphore {
+        private int limit;
+
+        private ResourceLimit(int limit) {
+            super(limit, true);
+            this.limit = limit;
+        }
+
+        private synchronized void resize(int limit) {
+            final int difference = limit - this.limit;
+            this.limit = limit;
+            if (difference > 0) {
+                this.release(difference);
+            } else if (difference < 0) {
+                // May leave the available permits negative until enough running tasks released theirs
+                this.reducePermits(-difference);
+            }
+        }
+    }
+
     /**
      * Used to log exceptions that occur within threads.
      *
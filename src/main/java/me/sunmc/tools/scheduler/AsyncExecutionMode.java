@@ -0,0 +1,22 @@
+package me.sunmc.tools.scheduler;
+
+import me.sunmc.tools.scheduler.interfaces.SchedulerAdapter;
+
+/**
+ * How the {@link SchedulerAdapter#async() async executor} of a {@link AbstractSchedulerAdapter} runs its tasks.
+ * CPU-bound work submitted to {@link SchedulerAdapter#compute()} always runs on the bounded worker pool.
+ */
+public enum AsyncExecutionMode {
+
+    /**
+     * Tasks run on the bounded worker pool. A few tasks blocking on I/O can occupy every worker.
+     */
+    POOLED,
+
+    /**
+     * Every task runs on its own virtual thread, so tasks blocking on I/O such as database queries, file writes or
+     * web requests do not hold up other tasks. Concurrency towards a single resource can be limited with
+     * {@link SchedulerAdapter#io(String)}.
+     */
+    VIRTUAL
+}
@@ -14,19 +14,21 @@ import java.util.concurrent.TimeUnit;
 /**
  * Bukkit Implementation of {@link SchedulerAdapter} using {@link BukkitScheduler}.
  * <p>
+ * Tasks passed to {@link #sync()} are queued in a {@link TickBatchedExecutor}, which runs them in one batch per tick
+ * within a time budget, instead of creating a Bukkit task for each of them.
  *
  * @see SchedulerAdapter for Javadocs on the implemented scheduler methods.
  */
 public class BukkitSchedulerAdapter extends AbstractSchedulerAdapter implements SchedulerAdapter {
 
-    private final @NonNull Executor sync;
+    private final @NonNull TickBatchedExecutor sync;
     private final @NonNull BukkitScheduler bukkitScheduler;
     private final @NonNull Tools plugin;
 
     public BukkitSchedulerAdapter(@NonNull Tools plugin) {
         super(plugin);
         final Server server = plugin.getServer();
-        this.sync = runnable -> server.getScheduler().runTask(plugin, runnable);
+        this.sync = new TickBatchedExecutor(plugin, plugin.getSyncTickBudget(), TimeUnit.MILLISECONDS);
         this.bukkitScheduler = server.getScheduler();
         this.plugin = plugin;
     }
@@ -52,8 +54,21 @@ public class BukkitSchedulerAdapter extends AbstractSchedulerAdapter implements
         return () -> this.bukkitScheduler.cancelTask(taskId);
     }
 
+    @Override
+    public void shutdownScheduler() {
+        this.sync.shutdown();
+        super.shutdownScheduler();
+    }
+
     @Override
     public @NonNull Executor sync() {
         return this.sync;
     }
+
+    /**
+     * @return The executor behind {@link #sync()}, exposing its queue depth and carry-over metrics.
+     */
+    public @NonNull TickBatchedExecutor getSyncExecutor() {
+        return this.sync;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package me.sunmc.tools.scheduler;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.utils.java.LoggerUtil;
+import org.bukkit.Server;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Main thread {@link Executor} running queued tasks in batches, once per server tick.
+ * <p>
+ * Tasks submitted from other threads are added to a lock-free multi-producer queue, which a single repeating task drains
+ * every tick until the time budget of the tick is used up. Tasks that do not fit are carried over to the next tick,
+ * so a burst of results completing on async threads never takes more than the budget of a tick. At least one task runs
+ * per tick, so the queue always makes progress. Tasks submitted from the main thread run immediately.
+ */
+public class TickBatchedExecutor implements Executor {
+
+    private final @NonNull Logger logger;
+    private final @NonNull Server server;
+    private final @NonNull Queue<Runnable> queue;
+    private final @NonNull AtomicInteger queueDepth;
+    private final int driverTaskId;
+
+    private volatile long budgetNanos;
+    private volatile boolean running = true;
+
+    // Only written by the main thread
+    private volatile int lastBatchSize = 0;
+    private volatile int lastCarryOver = 0;
+    private volatile long lastDrainNanos = 0;
+    private volatile long carriedOverTicks = 0;
+    private volatile long executedTasks = 0;
+
+    public TickBatchedExecutor(@NonNull Tools plugin, long budget, @NonNull TimeUnit unit) {
+        this.logger = LoggerUtil.createLoggerWithIdentifier(plugin, this);
+        this.server = plugin.getServer();
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.queueDepth = new AtomicInteger();
+        this.setBudget(budget, unit);
+        this.driverTaskId = this.server.getScheduler().runTaskTimer(plugin, this::drain, 0, 1).getTaskId();
+    }
+
+    @Override
+    public void execute(@NonNull Runnable task) {
+        if (this.server.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+
+        if (!this.running) {
+            throw new RejectedExecutionException("The main thread executor was shut down");
+        }
+
+        this.queueDepth.incrementAndGet();
+        this.queue.add(task);
+
+        // Shut down while the task was added, which then either discarded it or missed it
+        if (!this.running && this.queue.remove(task)) {
+            this.queueDepth.decrementAndGet();
+            throw new RejectedExecutionException("The main thread executor was shut down");
+        }
+    }
+
+    /**
+     * Runs queued tasks until the queue is empty or the budget of this tick is used up.
+     */
+    private void drain() {
+        final long start = System.nanoTime();
+        final long budget = this.budgetNanos;
+        int executed = 0;
+
+        Runnable task;
+        while ((task = this.queue.poll()) != null) {
+            this.queueDepth.decrementAndGet();
+            executed++;
+
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                this.logger.error("An exception was caught in a sync task.", throwable);
+            }
+
+            if (System.nanoTime() - start >= budget) {
+                break;
+            }
+        }
+
+        final int remaining = this.queueDepth.get();
+        this.lastBatchSize = executed;
+        this.lastCarryOver = remaining;
+        this.lastDrainNanos = System.nanoTime() - start;
+        this.executedTasks += executed;
+        if (remaining > 0) {
+            this.carriedOverTicks++;
+        }
+    }
+
+    /**
+     * Stops draining the queue. Tasks still queued are discarded, like the pending tasks of a disabled plugin.
+     */
+    public void shutdown() {
+        this.running = false;
+        this.server.getScheduler().cancelTask(this.driverTaskId);
+
+        int discarded = 0;
+        while (this.queue.poll() != null) {
+            this.queueDepth.decrementAndGet();
+            discarded++;
+        }
+        if (discarded > 0) {
+            this.logger.warn("Discarded {} queued sync tasks on shutdown.", discarded);
+        }
+    }
+
+    /**
+     * Sets how much main thread time the queued tasks may take per tick.
+     *
+     * @param budget The time budget.
+     * @param unit   The {@link TimeUnit} of the {@param budget}.
+     */
+    public void setBudget(long budget, @NonNull TimeUnit unit) {
+        this.budgetNanos = Math.max(0, unit.toNanos(budget));
+    }
+
+    /**
+     * @return The time budget per tick in milliseconds.
+     */
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.budgetNanos);
+    }
+
+    /**
+     * @return The number of tasks currently waiting to run.
+     */
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * @return The number of tasks left in the queue after the last tick, because they did not fit in its budget.
+     */
+    public int getLastCarryOver() {
+        return this.lastCarryOver;
+    }
+
+    /**
+     * @return The number of tasks run in the last tick.
+     */
+    public int getLastBatchSize() {
+        return this.lastBatchSize;
+    }
+
+    /**
+     * @return The main thread time taken by the last tick, in nanoseconds.
+     */
+    public long getLastDrainNanos() {
+        return this.lastDrainNanos;
+    }
+
+    /**
+     * @return The number of ticks that ended with tasks carried over to the next tick.
+     */
+    public long getCarriedOverTicks() {
+        return this.carriedOverTicks;
+    }
+
+    /**
+     * @return The total number of queued tasks run so far, not counting tasks run inline on the main thread.
+     */
+    public long getExecutedTasks() {
+        return this.executedTasks;
+    }
+}
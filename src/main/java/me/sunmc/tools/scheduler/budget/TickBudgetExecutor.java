@@ -0,0 +1,134 @@
+package me.sunmc.tools.scheduler.budget;
+
+import me.sunmc.tools.scheduler.interfaces.SchedulerAdapter;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import me.sunmc.tools.utils.bukkit.TickUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Splits large main thread jobs over several ticks.
+ * <p>
+ * A job is an iterator of work items and an action applied to each of them on the main thread. Every tick, the executor
+ * processes items of all running jobs until its time budget is used up, sharing the budget evenly between the jobs,
+ * and continues on the next tick. The budget is capped at a fraction of a tick, leaving the rest to the server.
+ * <p>
+ * No item is started once the budget is used up, except for a single one per tick: the job first in turn, which rotates
+ * every tick, always processes at least one item, so every job makes progress even if single items take longer than the budget.
+ * A tick therefore takes at most the budget plus the cost of one item, no matter how large or how many the jobs are.
+ * <pre>{@code
+ * TickBudgetExecutor executor = new TickBudgetExecutor(plugin.getSchedulerAdapter(), 10, TimeUnit.MILLISECONDS);
+ * executor.submit(List.copyOf(Bukkit.getOnlinePlayers()), PlayerUtil::fullResetPlayer)
+ *         .onProgress(job -> bossBar.progress((float) job.getProgress()))
+ *         .getFuture()
+ *         .thenRun(this::startMatch);
+ * }</pre>
+ */
+public class TickBudgetExecutor {
+
+    private static final long MAX_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(TickUtil.TICK_IN_MILLIS / 4);
+
+    private final @NonNull SchedulerAdapter scheduler;
+    private final long budgetNanos;
+
+    // Only accessed by the main thread
+    private final @NonNull List<TickBudgetJob<?>> jobs;
+    private @Nullable SchedulerTask driver;
+    private int nextJob = 0;
+
+    /**
+     * @param scheduler The scheduler used to run the jobs on the main thread.
+     * @param budget    The main thread time the jobs may take per tick, capped at 12 milliseconds.
+     * @param unit      The {@link TimeUnit} of the {@param budget}.
+     */
+    public TickBudgetExecutor(@NonNull SchedulerAdapter scheduler, long budget, @NonNull TimeUnit unit) {
+        this.scheduler = scheduler;
+        this.budgetNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(MAX_BUDGET_NANOS, unit.toNanos(budget)));
+        this.jobs = new ArrayList<>();
+    }
+
+    /**
+     * Submits a job processing every item of a collection. The items are iterated over a copy, so the collection can
+     * be modified while the job is running.
+     *
+     * @param items  The items to process.
+     * @param action The action to apply to each item on the main thread.
+     * @param <T>    The type of the items.
+     * @return The submitted job.
+     */
+    public <T> @NonNull TickBudgetJob<T> submit(@NonNull Collection<? extends T> items, @NonNull Consumer<? super T> action) {
+        final List<T> copy = List.copyOf(items);
+        return this.submit(copy.iterator(), copy.size(), action);
+    }
+
+    /**
+     * Submits a job processing every item of a spliterator. The total used for progress reporting is known if the spliterator
+     * is {@link Spliterator#SIZED sized}.
+     *
+     * @param items  The items to process.
+     * @param action The action to apply to each item on the main thread.
+     * @param <T>    The type of the items.
+     * @return The submitted job.
+     */
+    public <T> @NonNull TickBudgetJob<T> submit(@NonNull Spliterator<? extends T> items, @NonNull Consumer<? super T> action) {
+        final long total = items.hasCharacteristics(Spliterator.SIZED) ? items.getExactSizeIfKnown() : -1;
+        return this.submit(Spliterators.iterator(items), total, action);
+    }
+
+    /**
+     * Submits a job processing every item of an iterator. The iterator is only advanced on the main thread.
+     *
+     * @param items  The items to process.
+     * @param action The action to apply to each item on the main thread.
+     * @param <T>    The type of the items.
+     * @return The submitted job.
+     */
+    public <T> @NonNull TickBudgetJob<T> submit(@NonNull Iterator<? extends T> items, @NonNull Consumer<? super T> action) {
+        return this.submit(items, -1, action);
+    }
+
+    private <T> @NonNull TickBudgetJob<T> submit(@NonNull Iterator<? extends T> items, long total, @NonNull Consumer<? super T> action) {
+        final TickBudgetJob<T> job = new TickBudgetJob<>(items, total, action);
+        this.scheduler.executeSync(() -> {
+            this.jobs.add(job);
+            if (this.driver == null) {
+                this.driver = this.scheduler.syncRepeating(this::tick, 0, TickUtil.TICK_IN_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Runs the jobs for one tick, giving each job an equal share of the budget left when its turn comes.
+     * Only the first job in turn is guaranteed to process an item.
+     */
+    private void tick() {
+        final long deadline = System.nanoTime() + this.budgetNanos;
+        final int count = this.jobs.size();
+        final int first = count == 0 ? 0 : this.nextJob % count;
+
+        for (int offset = 0; offset < count; offset++) {
+            TickBudgetJob<?> job = this.jobs.get((first + offset) % count);
+            long now = System.nanoTime();
+            job.process(now + Math.max(0, deadline - now) / (count - offset), offset == 0);
+        }
+
+        this.nextJob = first + 1;
+        this.jobs.removeIf(TickBudgetJob::isDone);
+        if (this.jobs.isEmpty() && this.driver != null) {
+            this.driver.cancel();
+            this.driver = null;
+        }
+    }
+
+    /**
+     * @return The main thread time the jobs may take per tick, in milliseconds.
+     */
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.budgetNanos);
+    }
+}
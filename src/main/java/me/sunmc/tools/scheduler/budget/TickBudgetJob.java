@@ -0,0 +1,151 @@
+package me.sunmc.tools.scheduler.budget;
+
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Job submitted to a {@link TickBudgetExecutor}, processing its items over as many ticks as needed.
+ * <p>
+ * The {@link #getFuture() future} completes with the number of processed items once every item was processed.
+ * It completes exceptionally if the action throws for an item, which stops the job, and is cancelled if the job is cancelled.
+ *
+ * @param <T> The type of the items.
+ */
+public class TickBudgetJob<T> implements SchedulerTask {
+
+    private final @NonNull Iterator<? extends T> items;
+    private final long total;
+    private final @NonNull Consumer<? super T> action;
+    private final @NonNull CompletableFuture<Long> future;
+
+    private volatile long processed = 0;
+    private volatile long ticks = 0;
+    private volatile @Nullable Consumer<? super TickBudgetJob<T>> progressListener;
+
+    TickBudgetJob(@NonNull Iterator<? extends T> items, long total, @NonNull Consumer<? super T> action) {
+        this.items = items;
+        this.total = total;
+        this.action = action;
+        this.future = new CompletableFuture<>();
+    }
+
+    /**
+     * Processes items until the deadline passed. Called on the main thread.
+     *
+     * @param deadline   The {@link System#nanoTime()} after which no further item is started.
+     * @param guaranteed If at least one item is processed even if the deadline already passed.
+     */
+    void process(long deadline, boolean guaranteed) {
+        if (this.future.isDone() || (!guaranteed && System.nanoTime() >= deadline)) {
+            return;
+        }
+
+        long count = this.processed;
+        boolean exhausted;
+        try {
+            do {
+                exhausted = !this.items.hasNext();
+                if (exhausted) {
+                    break;
+                }
+
+                this.action.accept(this.items.next());
+                count++;
+            } while (System.nanoTime() < deadline && !this.future.isDone());
+
+            // Checked here as well, so a job whose last item was just processed completes in the same tick
+            exhausted = exhausted || !this.items.hasNext();
+        } catch (Throwable throwable) {
+            this.processed = count;
+            this.future.completeExceptionally(throwable);
+            return;
+        }
+
+        this.processed = count;
+        this.ticks++;
+
+        final Consumer<? super TickBudgetJob<T>> listener = this.progressListener;
+        if (listener != null) {
+            try {
+                listener.accept(this);
+            } catch (Throwable throwable) {
+                this.future.completeExceptionally(throwable);
+                return;
+            }
+        }
+
+        if (exhausted) {
+            this.future.complete(count);
+        }
+    }
+
+    /**
+     * Sets a listener called on the main thread after every tick in which this job processed items, including the last one,
+     * right before the {@link #getFuture() future} completes. If the listener throws, the job fails.
+     *
+     * @param listener The listener receiving this job.
+     * @return This job.
+     */
+    public @NonNull TickBudgetJob<T> onProgress(@NonNull Consumer<? super TickBudgetJob<T>> listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    /**
+     * Cancels this job. Items that were already processed are not reverted.
+     */
+    @Override
+    public void cancel() {
+        this.future.cancel(false);
+    }
+
+    /**
+     * @return Future completing with the number of processed items once the job is finished.
+     */
+    public @NonNull CompletableFuture<Long> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * @return If the job finished, failed or was cancelled.
+     */
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    /**
+     * @return The number of items processed so far.
+     */
+    public long getProcessed() {
+        return this.processed;
+    }
+
+    /**
+     * @return The total number of items, or {@code -1} if it is not known.
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * @return The fraction of processed items between {@code 0} and {@code 1}, or {@code -1} if the total is not known.
+     */
+    public double getProgress() {
+        if (this.total < 0) {
+            return -1;
+        }
+        return this.total == 0 ? 1 : Math.min(1, (double) this.processed / this.total);
+    }
+
+    /**
+     * @return The number of ticks in which this job processed items.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+}
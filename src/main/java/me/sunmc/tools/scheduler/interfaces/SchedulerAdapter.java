@@ -1,5 +1,7 @@
 package me.sunmc.tools.scheduler.interfaces;
 
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.concurrent.Executor;
@@ -51,6 +53,91 @@ public interface SchedulerAdapter {
     @NonNull
     SchedulerTask syncRepeating(@NonNull Runnable task, long initialDelay, long sequenceInterval, @NonNull TimeUnit unit);
 
+    /**
+     * Gets a synchronous executor running tasks on the thread that owns the given entity. Tasks submitted after the entity
+     * was removed from its world are not run.
+     * Implementations without regionized threading run the tasks on the main thread.
+     *
+     * @param entity The entity the tasks access.
+     * @return A synchronous {@link Executor} instance scoped to the entity.
+     */
+    @NonNull
+    default Executor sync(@NonNull Entity entity) {
+        return this.sync();
+    }
+
+    /**
+     * Gets a synchronous executor running tasks on the thread that owns the region containing the given location.
+     * Implementations without regionized threading run the tasks on the main thread.
+     *
+     * @param location The location the tasks access.
+     * @return A synchronous {@link Executor} instance scoped to the location.
+     */
+    @NonNull
+    default Executor sync(@NonNull Location location) {
+        return this.sync();
+    }
+
+    /**
+     * Executes the given {@link Runnable task} with a delay on the thread that owns the given entity.
+     * The task is not run if the entity was removed from its world in the meantime.
+     *
+     * @param entity The entity the task accesses.
+     * @param task   The task to perform.
+     * @param delay  The delay before the task is executed.
+     * @param unit   The {@link TimeUnit} to use for the {@param delay}.
+     * @return Instance of the task perform in a {@link SchedulerTask}.
+     */
+    @NonNull
+    default SchedulerTask syncLater(@NonNull Entity entity, @NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        return this.syncLater(task, delay, unit);
+    }
+
+    /**
+     * Executes the given {@link Runnable task} repeatedly on the thread that owns the given entity.
+     * The task stops repeating once the entity was removed from its world.
+     *
+     * @param entity           The entity the task accesses.
+     * @param task             The task to perform.
+     * @param initialDelay     The initial delay before the repeating sequence starts.
+     * @param sequenceInterval The interval between each repeating sequence.
+     * @param unit             The {@link TimeUnit} for the {@param interval}.
+     * @return Instance of the task perform in a {@link SchedulerTask}.
+     */
+    @NonNull
+    default SchedulerTask syncRepeating(@NonNull Entity entity, @NonNull Runnable task, long initialDelay, long sequenceInterval, @NonNull TimeUnit unit) {
+        return this.syncRepeating(task, initialDelay, sequenceInterval, unit);
+    }
+
+    /**
+     * Executes the given {@link Runnable task} with a delay on the thread that owns the region containing the given location.
+     *
+     * @param location The location the task accesses.
+     * @param task     The task to perform.
+     * @param delay    The delay before the task is executed.
+     * @param unit     The {@link TimeUnit} to use for the {@param delay}.
+     * @return Instance of the task perform in a {@link SchedulerTask}.
+     */
+    @NonNull
+    default SchedulerTask syncLater(@NonNull Location location, @NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        return this.syncLater(task, delay, unit);
+    }
+
+    /**
+     * Executes the given {@link Runnable task} repeatedly on the thread that owns the region containing the given location.
+     *
+     * @param location         The location the task accesses.
+     * @param task             The task to perform.
+     * @param initialDelay     The initial delay before the repeating sequence starts.
+     * @param sequenceInterval The interval between each repeating sequence.
+     * @param unit             The {@link TimeUnit} for the {@param interval}.
+     * @return Instance of the task perform in a {@link SchedulerTask}.
+     */
+    @NonNull
+    default SchedulerTask syncRepeating(@NonNull Location location, @NonNull Runnable task, long initialDelay, long sequenceInterval, @NonNull TimeUnit unit) {
+        return this.syncRepeating(task, initialDelay, sequenceInterval, unit);
+    }
+
     /**
      * Executes the given {@link Runnable task} with a delay asynchronously.
      *
@@ -103,4 +190,27 @@ public interface SchedulerAdapter {
      */
     @NonNull
     Executor async();
+
+    /**
+     * Gets an asynchronous executor meant for CPU-bound work, which always runs on a bounded pool
+     * no matter how {@link #async()} executes its tasks.
+     *
+     * @return An asynchronous {@link Executor} instance for CPU-bound work.
+     */
+    @NonNull
+    default Executor compute() {
+        return this.async();
+    }
+
+    /**
+     * Gets an asynchronous executor for blocking I/O towards a single resource, such as a database or a web service.
+     * Implementations may limit how many tasks of the same resource run at once.
+     *
+     * @param resource The name of the resource the tasks access.
+     * @return An asynchronous {@link Executor} instance for blocking I/O.
+     */
+    @NonNull
+    default Executor io(@NonNull String resource) {
+        return this.async();
+    }
 }
\ No newline at end of file
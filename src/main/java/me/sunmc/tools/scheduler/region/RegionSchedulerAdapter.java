@@ -0,0 +1,148 @@
+package me.sunmc.tools.scheduler.region;
+
+import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.scheduler.AbstractSchedulerAdapter;
+import me.sunmc.tools.scheduler.interfaces.SchedulerAdapter;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import me.sunmc.tools.utils.bukkit.TickUtil;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of {@link SchedulerAdapter} using Paper's regionized schedulers, for servers ticking regions of
+ * the worlds on multiple threads.
+ * <p>
+ * Tasks without a scope, including those of {@link #syncLater(Runnable, long, TimeUnit)} and
+ * {@link #syncRepeating(Runnable, long, long, TimeUnit)}, run on the global region through the {@link GlobalRegionScheduler}.
+ * Tasks accessing an entity or a location should use the scoped variants, which run them on the thread owning the entity
+ * or the region through its {@link org.bukkit.entity.Entity#getScheduler() EntityScheduler} or the {@link RegionScheduler}.
+ * Tasks submitted to an executor from the thread that already owns its scope run immediately.
+ * <p>
+ * On servers without regionized threading the same schedulers run every task on the main thread.
+ *
+ * @see SchedulerAdapter for Javadocs on the implemented scheduler methods.
+ */
+public class RegionSchedulerAdapter extends AbstractSchedulerAdapter implements SchedulerAdapter {
+
+    private static final @NonNull SchedulerTask RETIRED_TASK = () -> {
+    };
+
+    private final @NonNull Tools plugin;
+    private final @NonNull Server server;
+    private final @NonNull GlobalRegionScheduler globalScheduler;
+    private final @NonNull RegionScheduler regionScheduler;
+    private final @NonNull Executor sync;
+
+    public RegionSchedulerAdapter(@NonNull Tools plugin) {
+        super(plugin);
+        this.plugin = plugin;
+        this.server = plugin.getServer();
+        this.globalScheduler = this.server.getGlobalRegionScheduler();
+        this.regionScheduler = this.server.getRegionScheduler();
+        this.sync = task -> {
+            if (this.server.isGlobalTickThread()) {
+                task.run();
+            } else {
+                this.globalScheduler.execute(this.plugin, task);
+            }
+        };
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncLater(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        final long ticks = TickUtil.convertToTicks(delay, unit);
+        return wrap(ticks < 1
+                ? this.globalScheduler.run(this.plugin, scheduled -> task.run())
+                : this.globalScheduler.runDelayed(this.plugin, scheduled -> task.run(), ticks));
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncRepeating(@NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit timeUnit) {
+        return wrap(this.globalScheduler.runAtFixedRate(this.plugin, scheduled -> task.run(),
+                toDelayTicks(initialDelay, timeUnit), toDelayTicks(interval, timeUnit)));
+    }
+
+    @Override
+    public @NonNull Executor sync(@NonNull Entity entity) {
+        return task -> {
+            if (this.server.isOwnedByCurrentRegion(entity)) {
+                task.run();
+            } else {
+                entity.getScheduler().execute(this.plugin, task, null, 1);
+            }
+        };
+    }
+
+    @Override
+    public @NonNull Executor sync(@NonNull Location location) {
+        return task -> {
+            if (this.server.isOwnedByCurrentRegion(location)) {
+                task.run();
+            } else {
+                this.regionScheduler.execute(this.plugin, location, task);
+            }
+        };
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncLater(@NonNull Entity entity, @NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        final long ticks = TickUtil.convertToTicks(delay, unit);
+        return wrap(ticks < 1
+                ? entity.getScheduler().run(this.plugin, scheduled -> task.run(), null)
+                : entity.getScheduler().runDelayed(this.plugin, scheduled -> task.run(), null, ticks));
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncRepeating(@NonNull Entity entity, @NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit unit) {
+        return wrap(entity.getScheduler().runAtFixedRate(this.plugin, scheduled -> task.run(), null,
+                toDelayTicks(initialDelay, unit), toDelayTicks(interval, unit)));
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncLater(@NonNull Location location, @NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        final long ticks = TickUtil.convertToTicks(delay, unit);
+        return wrap(ticks < 1
+                ? this.regionScheduler.run(this.plugin, location, scheduled -> task.run())
+                : this.regionScheduler.runDelayed(this.plugin, location, scheduled -> task.run(), ticks));
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncRepeating(@NonNull Location location, @NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit unit) {
+        return wrap(this.regionScheduler.runAtFixedRate(this.plugin, location, scheduled -> task.run(),
+                toDelayTicks(initialDelay, unit), toDelayTicks(interval, unit)));
+    }
+
+    /**
+     * The regionized schedulers reject delays and periods below one tick.
+     */
+    private static long toDelayTicks(long time, @NonNull TimeUnit unit) {
+        return Math.max(1, TickUtil.convertToTicks(time, unit));
+    }
+
+    /**
+     * Entity schedulers return no task if the entity was already removed, in which case the task never runs.
+     */
+    private static @NonNull SchedulerTask wrap(@Nullable ScheduledTask task) {
+        return task == null ? RETIRED_TASK : task::cancel;
+    }
+
+    @Override
+    public void shutdownScheduler() {
+        this.globalScheduler.cancelTasks(this.plugin);
+        super.shutdownScheduler();
+    }
+
+    @Override
+    public @NonNull Executor sync() {
+        return this.sync;
+    }
+}
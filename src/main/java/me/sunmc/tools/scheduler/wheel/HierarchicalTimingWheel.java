@@ -0,0 +1,295 @@
+package me.sunmc.tools.scheduler.wheel;
+
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hierarchical hashed timing wheel for large numbers of delayed and repeating tasks.
+ * <p>
+ * Time is measured in ticks of a fixed length chosen by the owner, which calls {@link #advance(Executor)} once per tick
+ * from a single thread. Tasks are kept in four wheels of 64 buckets each, every wheel covering 64 times the span of the
+ * wheel below it. A task is placed in the lowest wheel whose span still reaches its deadline, and moves down one wheel
+ * at a time as its deadline approaches. Tasks further away than the top wheel are kept in an overflow bucket.
+ * <p>
+ * Scheduling and cancelling are O(1) and can be done from any thread: new and cancelled tasks are queued lock-free
+ * and linked into or out of their doubly linked bucket by the owner thread on the next tick.
+ */
+public final class HierarchicalTimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long TOTAL_SPAN_MASK = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final @NonNull Bucket[][] wheels;
+    private final @NonNull Bucket overflow;
+    private final @NonNull Queue<WheelTask> scheduled;
+    private final @NonNull Queue<WheelTask> cancelled;
+    private final @NonNull AtomicInteger size;
+    private volatile long currentTick = 0;
+
+    public HierarchicalTimingWheel() {
+        this.wheels = new Bucket[LEVELS][WHEEL_SIZE];
+        for (Bucket[] wheel : this.wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+        this.overflow = new Bucket();
+        this.scheduled = new ConcurrentLinkedQueue<>();
+        this.cancelled = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Schedules a task. Can be called from any thread.
+     *
+     * @param task        The task to run.
+     * @param delayTicks  The number of ticks before the first run, at least one.
+     * @param periodTicks The number of ticks between two runs, or {@code 0} to run the task once.
+     * @return Handle of the scheduled task, which can be used to cancel it.
+     */
+    public @NonNull SchedulerTask schedule(@NonNull Runnable task, long delayTicks, long periodTicks) {
+        final WheelTask wheelTask = new WheelTask(this, task, this.currentTick + Math.max(1, delayTicks), Math.max(0, periodTicks));
+        this.size.incrementAndGet();
+        this.scheduled.add(wheelTask);
+        return wheelTask;
+    }
+
+    /**
+     * Advances the wheel by one tick and hands every task that is due to the dispatcher.
+     * Must always be called from the same thread.
+     *
+     * @param dispatcher The executor running the due tasks.
+     */
+    public void advance(@NonNull Executor dispatcher) {
+        this.processQueues();
+
+        final long tick = this.currentTick + 1;
+        this.cascade(tick);
+        this.currentTick = tick;
+
+        final Bucket bucket = this.wheels[0][(int) (tick & WHEEL_MASK)];
+        WheelTask task;
+        while ((task = bucket.poll()) != null) {
+            if (task.deadline > tick) {
+                this.insert(task, tick);
+                continue;
+            }
+
+            if (task.period == 0) {
+                if (task.expire()) {
+                    this.size.decrementAndGet();
+                    dispatcher.execute(task.task);
+                }
+                continue;
+            }
+
+            if (!task.isCancelled()) {
+                dispatcher.execute(task.task);
+                task.deadline = tick + task.period;
+                this.insert(task, tick);
+            }
+        }
+    }
+
+    /**
+     * Links newly scheduled tasks into their buckets and unlinks cancelled ones.
+     */
+    private void processQueues() {
+        WheelTask task;
+        while ((task = this.scheduled.poll()) != null) {
+            if (task.isCancelled()) {
+                continue;
+            }
+
+            // The tick read while scheduling may be behind by the time the task is linked
+            task.deadline = Math.max(task.deadline, this.currentTick + 1);
+            this.insert(task, this.currentTick);
+        }
+
+        while ((task = this.cancelled.poll()) != null) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+            }
+        }
+    }
+
+    /**
+     * Moves the tasks of the higher wheels whose bucket starts at this tick down to the lower wheels.
+     */
+    private void cascade(long tick) {
+        if ((tick & TOTAL_SPAN_MASK) == 0) {
+            this.reinsertAll(this.overflow, tick);
+        }
+
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                this.reinsertAll(this.wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)], tick);
+            }
+        }
+    }
+
+    private void reinsertAll(@NonNull Bucket bucket, long reference) {
+        WheelTask task = bucket.detachAll();
+        while (task != null) {
+            WheelTask next = task.next;
+            task.next = null;
+            task.prev = null;
+            this.insert(task, reference);
+            task = next;
+        }
+    }
+
+    /**
+     * Links a task into the lowest wheel in which its deadline shares all higher digits with the reference tick.
+     */
+    private void insert(@NonNull WheelTask task, long reference) {
+        final long deadline = task.deadline;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * (level + 1);
+            if ((deadline >>> shift) == (reference >>> shift)) {
+                this.wheels[level][(int) ((deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(task);
+                return;
+            }
+        }
+        this.overflow.add(task);
+    }
+
+    void onCancel(@NonNull WheelTask task) {
+        this.size.decrementAndGet();
+        this.cancelled.add(task);
+    }
+
+    /**
+     * @return The number of ticks this wheel advanced.
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * @return The number of scheduled tasks that were neither run once nor cancelled yet.
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Doubly linked list of the tasks due in the same slot of a wheel. Only accessed by the owner thread.
+     */
+    private static final class Bucket {
+
+        private @Nullable WheelTask head;
+        private @Nullable WheelTask tail;
+
+        void add(@NonNull WheelTask task) {
+            task.bucket = this;
+            task.prev = this.tail;
+            task.next = null;
+            if (this.tail == null) {
+                this.head = task;
+            } else {
+                this.tail.next = task;
+            }
+            this.tail = task;
+        }
+
+        void remove(@NonNull WheelTask task) {
+            if (task.prev == null) {
+                this.head = task.next;
+            } else {
+                task.prev.next = task.next;
+            }
+
+            if (task.next == null) {
+                this.tail = task.prev;
+            } else {
+                task.next.prev = task.prev;
+            }
+
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+
+        @Nullable WheelTask poll() {
+            WheelTask task = this.head;
+            if (task != null) {
+                this.remove(task);
+            }
+            return task;
+        }
+
+        @Nullable WheelTask detachAll() {
+            WheelTask task = this.head;
+            for (WheelTask current = task; current != null; current = current.next) {
+                current.bucket = null;
+            }
+            this.head = null;
+            this.tail = null;
+            return task;
+        }
+    }
+
+    /**
+     * Task linked into a bucket of the wheel.
+     */
+    private static final class WheelTask implements SchedulerTask {
+
+        private static final int WAITING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+        private static final @NonNull VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(WheelTask.class, "state", int.class);
+            } catch (ReflectiveOperationException exception) {
+                throw new ExceptionInInitializerError(exception);
+            }
+        }
+
+        private final @NonNull HierarchicalTimingWheel wheel;
+        private final @NonNull Runnable task;
+        private final long period;
+        private volatile int state = WAITING;
+        private long deadline;
+
+        // Only accessed by the owner thread
+        private @Nullable Bucket bucket;
+        private @Nullable WheelTask prev;
+        private @Nullable WheelTask next;
+
+        WheelTask(@NonNull HierarchicalTimingWheel wheel, @NonNull Runnable task, long deadline, long period) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        boolean expire() {
+            return STATE.compareAndSet(this, WAITING, EXPIRED);
+        }
+
+        boolean isCancelled() {
+            return this.state == CANCELLED;
+        }
+
+        @Override
+        public void cancel() {
+            if (STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                this.wheel.onCancel(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package me.sunmc.tools.scheduler.wheel;
+
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.scheduler.BukkitSchedulerAdapter;
+import me.sunmc.tools.scheduler.interfaces.SchedulerAdapter;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import me.sunmc.tools.utils.bukkit.TickUtil;
+import me.sunmc.tools.utils.java.LoggerUtil;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Implementation of {@link SchedulerAdapter} keeping delayed and repeating tasks in {@link HierarchicalTimingWheel timing wheels}
+ * instead of a {@link java.util.concurrent.ScheduledThreadPoolExecutor} and one Bukkit task per call.
+ * <p>
+ * Sync tasks are bucketed per server tick in a wheel advanced by a single repeating Bukkit task, and run inline on the main thread.
+ * Async tasks are bucketed per {@code asyncTick} in a wheel advanced by a dedicated thread, and run on the {@link #async()} executor.
+ * Scheduling and cancelling is O(1), which suits hundreds of thousands of short-lived delays such as cooldowns.
+ * Delays are rounded up to whole wheel ticks.
+ *
+ * @see SchedulerAdapter for Javadocs on the implemented scheduler methods.
+ */
+public class TimingWheelSchedulerAdapter extends BukkitSchedulerAdapter {
+
+    private static final @NonNull String WHEEL_THREAD_NAME = "liam-tools-wheel";
+
+    private final @NonNull Logger logger;
+    private final @NonNull HierarchicalTimingWheel syncWheel;
+    private final @NonNull HierarchicalTimingWheel asyncWheel;
+    private final @NonNull BukkitScheduler bukkitScheduler;
+    private final long asyncTickNanos;
+    private final int syncDriverTaskId;
+    private final @NonNull Thread wheelThread;
+    private volatile boolean running = true;
+
+    public TimingWheelSchedulerAdapter(@NonNull Tools plugin) {
+        this(plugin, 10, TimeUnit.MILLISECONDS);
+    }
+
+    public TimingWheelSchedulerAdapter(@NonNull Tools plugin, long asyncTick, @NonNull TimeUnit unit) {
+        super(plugin);
+        this.logger = LoggerUtil.createLoggerWithIdentifier(plugin, this);
+        this.syncWheel = new HierarchicalTimingWheel();
+        this.asyncWheel = new HierarchicalTimingWheel();
+        this.bukkitScheduler = plugin.getServer().getScheduler();
+        this.asyncTickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), unit.toNanos(asyncTick));
+
+        this.syncDriverTaskId = this.bukkitScheduler.runTaskTimer(plugin,
+                () -> this.syncWheel.advance(this::runSafely), 1, 1).getTaskId();
+
+        this.wheelThread = new Thread(this::runAsyncWheel, WHEEL_THREAD_NAME);
+        this.wheelThread.setDaemon(true);
+        this.wheelThread.start();
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncLater(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        return this.syncWheel.schedule(task, TickUtil.convertToTicks(delay, unit), 0);
+    }
+
+    @Override
+    public @NonNull SchedulerTask syncRepeating(@NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit timeUnit) {
+        return this.syncWheel.schedule(task, TickUtil.convertToTicks(initialDelay, timeUnit),
+                Math.max(1, TickUtil.convertToTicks(interval, timeUnit)));
+    }
+
+    @Override
+    public @NonNull SchedulerTask asyncLater(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        return this.asyncWheel.schedule(task, this.toAsyncTicks(delay, unit), 0);
+    }
+
+    @Override
+    public @NonNull SchedulerTask asyncRepeating(@NonNull Runnable task, long initialDelay, long interval, @NonNull TimeUnit unit) {
+        return this.asyncWheel.schedule(task, this.toAsyncTicks(initialDelay, unit), Math.max(1, this.toAsyncTicks(interval, unit)));
+    }
+
+    private long toAsyncTicks(long time, @NonNull TimeUnit unit) {
+        final long nanos = unit.toNanos(time);
+        return (nanos + this.asyncTickNanos - 1) / this.asyncTickNanos;
+    }
+
+    /**
+     * Advances the async wheel once per tick, catching up on missed ticks if the thread was delayed.
+     */
+    private void runAsyncWheel() {
+        long nextTick = System.nanoTime() + this.asyncTickNanos;
+
+        while (this.running) {
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            try {
+                this.asyncWheel.advance(this.async());
+            } catch (Exception exception) {
+                this.logger.error("Could not dispatch scheduled async tasks", exception);
+            }
+            nextTick += this.asyncTickNanos;
+        }
+    }
+
+    private void runSafely(@NonNull Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable throwable) {
+            this.logger.error("An exception was caught in a scheduled sync task.", throwable);
+        }
+    }
+
+    @Override
+    public void shutdownScheduler() {
+        this.running = false;
+        LockSupport.unpark(this.wheelThread);
+        this.bukkitScheduler.cancelTask(this.syncDriverTaskId);
+
+        try {
+            this.wheelThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        super.shutdownScheduler();
+    }
+
+    /**
+     * @return The number of pending sync tasks.
+     */
+    public int getPendingSyncTasks() {
+        return this.syncWheel.size();
+    }
+
+    /**
+     * @return The number of pending async tasks.
+     */
+    public int getPendingAsyncTasks() {
+        return this.asyncWheel.size();
+    }
+}
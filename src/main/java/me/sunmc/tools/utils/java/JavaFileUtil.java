@@ -7,7 +7,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 /**
  * Utility class for working with {@link File} and performing file operations.
@@ -115,4 +120,42 @@ public class JavaFileUtil {
             exception.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Computes the SHA-256 digest of the content of a file.
+     *
+     * @param path The path of the file to hash.
+     * @return The digest as a lowercase hexadecimal string.
+     * @throws IOException If the file could not be read.
+     */
+    public static @NonNull String hashFile(@NonNull Path path) throws IOException {
+        final MessageDigest digest = sha256();
+
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes the SHA-256 digest of content already read into memory, matching {@link #hashFile(Path)} for the same bytes.
+     *
+     * @param content The content to hash.
+     * @return The digest as a lowercase hexadecimal string.
+     */
+    public static @NonNull String hashBytes(byte @NonNull [] content) {
+        return HexFormat.of().formatHex(sha256().digest(content));
+    }
+
+    private static @NonNull MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", exception);
+        }
+    }
+}
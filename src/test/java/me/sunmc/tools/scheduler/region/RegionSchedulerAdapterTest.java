@@ -0,0 +1,214 @@
+package me.sunmc.tools.scheduler.region;
+
+import io.papermc.paper.threadedregions.scheduler.EntityScheduler;
+import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.sunmc.tools.Tools;
+import me.sunmc.tools.scheduler.AsyncExecutionMode;
+import me.sunmc.tools.scheduler.interfaces.SchedulerTask;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the {@link RegionSchedulerAdapter} against stubbed Paper schedulers, which record the submitted tasks
+ * instead of running them on a region thread.
+ */
+class RegionSchedulerAdapterTest {
+
+    private Tools plugin;
+    private Server server;
+    private GlobalRegionScheduler globalScheduler;
+    private RegionScheduler regionScheduler;
+    private EntityScheduler entityScheduler;
+    private Entity entity;
+    private Location location;
+    private ScheduledTask scheduledTask;
+    private RegionSchedulerAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        this.plugin = mock(Tools.class);
+        this.server = mock(Server.class);
+        this.globalScheduler = mock(GlobalRegionScheduler.class);
+        this.regionScheduler = mock(RegionScheduler.class);
+        this.entityScheduler = mock(EntityScheduler.class);
+        this.entity = mock(Entity.class);
+        this.location = mock(Location.class);
+        this.scheduledTask = mock(ScheduledTask.class);
+
+        when(this.plugin.getServer()).thenReturn(this.server);
+        when(this.plugin.getPluginIdentifier()).thenReturn("test");
+        when(this.plugin.getAsyncExecutionMode()).thenReturn(AsyncExecutionMode.POOLED);
+        when(this.server.getGlobalRegionScheduler()).thenReturn(this.globalScheduler);
+        when(this.server.getRegionScheduler()).thenReturn(this.regionScheduler);
+        when(this.entity.getScheduler()).thenReturn(this.entityScheduler);
+
+        when(this.globalScheduler.run(any(), any())).thenReturn(this.scheduledTask);
+        when(this.globalScheduler.runDelayed(any(), any(), anyLong())).thenReturn(this.scheduledTask);
+        when(this.globalScheduler.runAtFixedRate(any(), any(), anyLong(), anyLong())).thenReturn(this.scheduledTask);
+        when(this.regionScheduler.run(any(), any(Location.class), any())).thenReturn(this.scheduledTask);
+        when(this.regionScheduler.runDelayed(any(), any(Location.class), any(), anyLong())).thenReturn(this.scheduledTask);
+        when(this.regionScheduler.runAtFixedRate(any(), any(Location.class), any(), anyLong(), anyLong())).thenReturn(this.scheduledTask);
+        when(this.entityScheduler.run(any(), any(), any())).thenReturn(this.scheduledTask);
+        when(this.entityScheduler.runDelayed(any(), any(), any(), anyLong())).thenReturn(this.scheduledTask);
+        when(this.entityScheduler.runAtFixedRate(any(), any(), any(), anyLong(), anyLong())).thenReturn(this.scheduledTask);
+
+        this.adapter = new RegionSchedulerAdapter(this.plugin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.adapter.shutdownScheduler();
+        this.adapter.shutdownExecutor();
+    }
+
+    @Test
+    void syncLaterDispatchesToGlobalScheduler() {
+        final AtomicInteger runs = new AtomicInteger();
+        final SchedulerTask task = this.adapter.syncLater(runs::incrementAndGet, 1, TimeUnit.SECONDS);
+
+        final Consumer<ScheduledTask> scheduled = captureTask(captor -> verify(this.globalScheduler)
+                .runDelayed(eq(this.plugin), captor.capture(), eq(20L)));
+        scheduled.accept(this.scheduledTask);
+        assertEquals(1, runs.get());
+
+        task.cancel();
+        verify(this.scheduledTask).cancel();
+    }
+
+    @Test
+    void syncRepeatingDispatchesToGlobalScheduler() {
+        this.adapter.syncRepeating(() -> {
+        }, 2, 5, TimeUnit.SECONDS);
+
+        verify(this.globalScheduler).runAtFixedRate(eq(this.plugin), any(), eq(40L), eq(100L));
+    }
+
+    @Test
+    void syncExecutorDispatchesToGlobalSchedulerOffGlobalThread() {
+        final AtomicInteger runs = new AtomicInteger();
+        this.adapter.sync().execute(runs::incrementAndGet);
+
+        verify(this.globalScheduler).execute(eq(this.plugin), any(Runnable.class));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void syncExecutorRunsInlineOnGlobalThread() {
+        when(this.server.isGlobalTickThread()).thenReturn(true);
+
+        final AtomicInteger runs = new AtomicInteger();
+        this.adapter.sync().execute(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        verify(this.globalScheduler, never()).execute(any(), any(Runnable.class));
+    }
+
+    @Test
+    void locationTasksDispatchToRegionScheduler() {
+        this.adapter.syncLater(this.location, () -> {
+        }, 3, TimeUnit.SECONDS);
+        this.adapter.syncRepeating(this.location, () -> {
+        }, 1, 1, TimeUnit.SECONDS);
+        this.adapter.sync(this.location).execute(() -> {
+        });
+
+        verify(this.regionScheduler).runDelayed(eq(this.plugin), eq(this.location), any(), eq(60L));
+        verify(this.regionScheduler).runAtFixedRate(eq(this.plugin), eq(this.location), any(), eq(20L), eq(20L));
+        verify(this.regionScheduler).execute(eq(this.plugin), eq(this.location), any(Runnable.class));
+        verifyNoInteractions(this.globalScheduler);
+    }
+
+    @Test
+    void entityTasksDispatchToEntityScheduler() {
+        this.adapter.syncLater(this.entity, () -> {
+        }, 3, TimeUnit.SECONDS);
+        this.adapter.syncRepeating(this.entity, () -> {
+        }, 1, 1, TimeUnit.SECONDS);
+        this.adapter.sync(this.entity).execute(() -> {
+        });
+
+        verify(this.entityScheduler).runDelayed(eq(this.plugin), any(), isNull(), eq(60L));
+        verify(this.entityScheduler).runAtFixedRate(eq(this.plugin), any(), isNull(), eq(20L), eq(20L));
+        verify(this.entityScheduler).execute(eq(this.plugin), any(Runnable.class), isNull(), eq(1L));
+        verifyNoInteractions(this.globalScheduler, this.regionScheduler);
+    }
+
+    @Test
+    void delaysBelowOneTickAreClamped() {
+        this.adapter.syncLater(() -> {
+        }, 10, TimeUnit.MILLISECONDS);
+        this.adapter.syncRepeating(() -> {
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        this.adapter.syncLater(this.location, () -> {
+        }, 0, TimeUnit.MILLISECONDS);
+        this.adapter.syncRepeating(this.location, () -> {
+        }, 0, 0, TimeUnit.MILLISECONDS);
+        this.adapter.syncLater(this.entity, () -> {
+        }, 0, TimeUnit.MILLISECONDS);
+        this.adapter.syncRepeating(this.entity, () -> {
+        }, 0, 0, TimeUnit.MILLISECONDS);
+
+        verify(this.globalScheduler).run(eq(this.plugin), any());
+        verify(this.globalScheduler, never()).runDelayed(any(), any(), anyLong());
+        verify(this.globalScheduler).runAtFixedRate(eq(this.plugin), any(), eq(1L), eq(1L));
+        verify(this.regionScheduler).run(eq(this.plugin), eq(this.location), any());
+        verify(this.regionScheduler).runAtFixedRate(eq(this.plugin), eq(this.location), any(), eq(1L), eq(1L));
+        verify(this.entityScheduler).run(eq(this.plugin), any(), isNull());
+        verify(this.entityScheduler).runAtFixedRate(eq(this.plugin), any(), isNull(), eq(1L), eq(1L));
+    }
+
+    @Test
+    void retiredEntityReturnsNoOpTask() {
+        when(this.entityScheduler.runDelayed(any(), any(), any(), anyLong())).thenReturn(null);
+        when(this.entityScheduler.runAtFixedRate(any(), any(), any(), anyLong(), anyLong())).thenReturn(null);
+
+        final SchedulerTask later = this.adapter.syncLater(this.entity, () -> {
+        }, 1, TimeUnit.SECONDS);
+        final SchedulerTask repeating = this.adapter.syncRepeating(this.entity, () -> {
+        }, 1, 1, TimeUnit.SECONDS);
+
+        assertDoesNotThrow(later::cancel);
+        assertDoesNotThrow(repeating::cancel);
+        verifyNoInteractions(this.scheduledTask);
+    }
+
+    @Test
+    void ownedRegionRunsInline() {
+        when(this.server.isOwnedByCurrentRegion(this.location)).thenReturn(true);
+        when(this.server.isOwnedByCurrentRegion(this.entity)).thenReturn(true);
+
+        final AtomicInteger runs = new AtomicInteger();
+        this.adapter.sync(this.location).execute(runs::incrementAndGet);
+        this.adapter.sync(this.entity).execute(runs::incrementAndGet);
+
+        assertEquals(2, runs.get());
+        verify(this.regionScheduler, never()).execute(any(), any(Location.class), any(Runnable.class));
+        verify(this.entityScheduler, never()).execute(any(), any(Runnable.class), any(), anyLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<ScheduledTask> captureTask(Consumer<ArgumentCaptor<Consumer<ScheduledTask>>> verification) {
+        final ArgumentCaptor<Consumer<ScheduledTask>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verification.accept(captor);
+        return captor.getValue();
+    }
+}